@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.ai.chat.messages.Message;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Keeps conversations on the heap in a Caffeine cache bounded by the number of
+ * conversations and evicting those idle for longer than the timeout. Together with the
+ * message window of each conversation this caps the memory used by chat history.
+ */
+class BoundedChatMemoryStore implements ChatMemoryStore {
+
+	private final Cache<String, List<Message>> conversations;
+
+	BoundedChatMemoryStore(int maxSessions, Duration idleTimeout) {
+		this(Caffeine.newBuilder().maximumSize(maxSessions).expireAfterAccess(idleTimeout).recordStats());
+	}
+
+	BoundedChatMemoryStore(Caffeine<Object, Object> builder) {
+		this.conversations = builder.build();
+	}
+
+	Cache<String, List<Message>> getConversations() {
+		return this.conversations;
+	}
+
+	@Override
+	public List<String> findConversationIds() {
+		return List.copyOf(this.conversations.asMap().keySet());
+	}
+
+	@Override
+	public List<Message> findByConversationId(String conversationId) {
+		List<Message> messages = this.conversations.getIfPresent(conversationId);
+		return (messages != null) ? messages : List.of();
+	}
+
+	@Override
+	public void saveAll(String conversationId, List<Message> messages) {
+		this.conversations.put(conversationId, List.copyOf(messages));
+	}
+
+	@Override
+	public void deleteByConversationId(String conversationId) {
+		this.conversations.invalidate(conversationId);
+	}
+
+	@Override
+	public long sessionCount() {
+		return this.conversations.estimatedSize();
+	}
+
+	@Override
+	public long messageCount() {
+		return this.conversations.asMap().values().stream().mapToLong(List::size).sum();
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admission control for chat streams. A request must take a token from the bucket of its
+ * chat session and of its client address, and a slot from the global limit on concurrent
+ * streams, waiting up to the queue timeout for one if no more than the maximum number of
+ * requests are waiting already. Every limit is checked before any token is taken, and
+ * requests that fail any of them are rejected with {@code 429 Too Many Requests} before
+ * the model is called.
+ * <p>
+ * Rejections are counted by {@code petclinic.chat.admission.rejected}, tagged with the
+ * {@code reason}; {@code petclinic.chat.admission.queued} and
+ * {@code petclinic.chat.admission.active} report waiting and streaming requests.
+ * </p>
+ */
+@Component
+class ChatAdmissionControl {
+
+	private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final ChatAdmissionProperties properties;
+
+	private final Cache<String, TokenBucket> sessionBuckets;
+
+	private final Cache<String, TokenBucket> ipBuckets;
+
+	private final Semaphore streams;
+
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private final MeterRegistry meterRegistry;
+
+	private final LongSupplier nanoTime;
+
+	@Autowired
+	ChatAdmissionControl(ChatAdmissionProperties properties, MeterRegistry meterRegistry) {
+		this(properties, meterRegistry, System::nanoTime);
+	}
+
+	ChatAdmissionControl(ChatAdmissionProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+		this.properties = properties;
+		this.sessionBuckets = Caffeine.newBuilder().expireAfterAccess(properties.idleBucketExpiry()).build();
+		this.ipBuckets = Caffeine.newBuilder().expireAfterAccess(properties.idleBucketExpiry()).build();
+		this.streams = new Semaphore(properties.maxConcurrentStreams(), true);
+		this.meterRegistry = meterRegistry;
+		this.nanoTime = nanoTime;
+		Gauge.builder("petclinic.chat.admission.queued", this.queued, AtomicInteger::get)
+			.description("Chat requests waiting for a free stream")
+			.register(meterRegistry);
+		Gauge
+			.builder("petclinic.chat.admission.active", this.streams,
+					semaphore -> properties.maxConcurrentStreams() - semaphore.availablePermits())
+			.description("Chat responses currently streaming")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Admit a chat request or reject it.
+	 * @param sessionId the chat session of the request
+	 * @param clientAddress the address the request came from
+	 * @return the permit to {@link Permit#close() close} when the response has finished
+	 * streaming
+	 * @throws ResponseStatusException with status 429 if the request is not admitted
+	 */
+	Permit admit(String sessionId, String clientAddress) {
+		long now = this.nanoTime.getAsLong();
+		TokenBucket session = this.sessionBuckets.get(sessionId,
+				key -> new TokenBucket(this.properties.session(), now));
+		TokenBucket ip = this.ipBuckets.get(clientAddress, key -> new TokenBucket(this.properties.ip(), now));
+		// check every limit before spending any, so a rejected request costs nothing
+		checkAvailable(session, now, "session");
+		checkAvailable(ip, now, "ip");
+		if (!acquireStream()) {
+			throw reject("capacity", this.properties.queueTimeout().toNanos());
+		}
+		// another request of the same session or address may have taken the last token
+		long admitted = this.nanoTime.getAsLong();
+		if (!session.tryAcquire(admitted)) {
+			this.streams.release();
+			throw reject("session", session.nanosUntilAvailable(admitted));
+		}
+		if (!ip.tryAcquire(admitted)) {
+			session.refund();
+			this.streams.release();
+			throw reject("ip", ip.nanosUntilAvailable(admitted));
+		}
+		AtomicBoolean released = new AtomicBoolean();
+		return () -> {
+			if (released.compareAndSet(false, true)) {
+				this.streams.release();
+			}
+		};
+	}
+
+	private void checkAvailable(TokenBucket bucket, long now, String reason) {
+		long wait = bucket.nanosUntilAvailable(now);
+		if (wait > 0) {
+			throw reject(reason, wait);
+		}
+	}
+
+	private boolean acquireStream() {
+		if (this.streams.tryAcquire()) {
+			return true;
+		}
+		if (this.queued.incrementAndGet() > this.properties.maxQueued()) {
+			this.queued.decrementAndGet();
+			return false;
+		}
+		try {
+			return this.streams.tryAcquire(this.properties.queueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		finally {
+			this.queued.decrementAndGet();
+		}
+	}
+
+	private ResponseStatusException reject(String reason, long retryAfterNanos) {
+		this.meterRegistry.counter("petclinic.chat.admission.rejected", "reason", reason).increment();
+		long retryAfterSeconds = Math.max(1, (retryAfterNanos + ONE_SECOND_NANOS - 1) / ONE_SECOND_NANOS);
+		return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many chat requests") {
+
+			@Override
+			public HttpHeaders getHeaders() {
+				HttpHeaders headers = new HttpHeaders();
+				headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+				return headers;
+			}
+
+		};
+	}
+
+	/**
+	 * A slot on the concurrent stream limit, released once when closed.
+	 */
+	interface Permit extends AutoCloseable {
+
+		@Override
+		void close();
+
+	}
+
+}
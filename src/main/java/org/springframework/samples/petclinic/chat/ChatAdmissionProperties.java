@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Admission control settings for {@code POST /api/chat} under
+ * {@code petclinic.chat.admission}.
+ *
+ * @param session the request rate allowed per chat session
+ * @param ip the request rate allowed per client address
+ * @param maxConcurrentStreams the number of responses that may stream at once
+ * @param queueTimeout how long a request waits for a free stream before it is rejected
+ * @param maxQueued the number of requests that may wait for a free stream at once;
+ * further requests are rejected without waiting
+ * @param idleBucketExpiry how long the rate of an inactive session or address is kept
+ */
+@ConfigurationProperties("petclinic.chat.admission")
+record ChatAdmissionProperties(Rate session, Rate ip, int maxConcurrentStreams, Duration queueTimeout, int maxQueued,
+		Duration idleBucketExpiry) {
+
+	ChatAdmissionProperties {
+		session = (session != null) ? session : new Rate(5, 10);
+		ip = (ip != null) ? ip : new Rate(30, 60);
+		maxConcurrentStreams = (maxConcurrentStreams > 0) ? maxConcurrentStreams : 50;
+		queueTimeout = (queueTimeout != null) ? queueTimeout : Duration.ofSeconds(2);
+		maxQueued = (maxQueued > 0) ? maxQueued : 10;
+		idleBucketExpiry = (idleBucketExpiry != null) ? idleBucketExpiry : Duration.ofMinutes(10);
+	}
+
+	/**
+	 * A token bucket rate.
+	 *
+	 * @param burst the number of requests allowed back to back
+	 * @param perMinute the sustained number of requests per minute
+	 */
+	record Rate(int burst, int perMinute) {
+
+		Rate {
+			burst = Math.max(1, burst);
+			perMinute = Math.max(1, perMinute);
+		}
+
+	}
+
+}
@@ -13,33 +13,71 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.springframework.samples.petclinic.chat;
 
+import java.util.Arrays;
+
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
 import org.springframework.ai.chat.memory.MessageWindowChatMemory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.ai.support.ToolCallbacks;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
 /**
  * Spring configuration for the AI chat feature. Exposes {@link ChatClient} and
- * {@link MessageWindowChatMemory} beans used by {@link ChatService}.
+ * {@link MessageWindowChatMemory} beans used by {@link ChatService}. The tools of
+ * {@link ChatTools} are registered through {@link RecordingToolCallback}, so that answers
+ * that used them are not cached.
+ * <p>
+ * Conversations are kept in a {@link ChatMemoryStore}: a bounded in-memory store by
+ * default, or the database with {@code petclinic.chat.memory.store=jdbc} (see
+ * {@link JdbcChatMemoryConfiguration}). The store's size is published as the
+ * {@code petclinic.chat.memory.sessions} and {@code petclinic.chat.memory.messages}
+ * gauges.
  */
 @Configuration
+@EnableConfigurationProperties({ ChatMemoryProperties.class, ChatAdmissionProperties.class })
 class ChatConfig {
 
 	@Bean
 	ChatClient chatClient(ChatClient.Builder builder, ChatTools chatTools) {
-		return builder.defaultTools(chatTools).build();
+		return builder
+			.defaultToolCallbacks(
+					Arrays.stream(ToolCallbacks.from(chatTools)).<ToolCallback>map(RecordingToolCallback::new).toList())
+			.build();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "petclinic.chat.memory.store", havingValue = "memory", matchIfMissing = true)
+	BoundedChatMemoryStore chatMemoryStore(ChatMemoryProperties properties, MeterRegistry meterRegistry) {
+		BoundedChatMemoryStore store = new BoundedChatMemoryStore(properties.maxSessions(), properties.idleTimeout());
+		// the tag keys of Spring Boot's cache metrics: a registry such as Prometheus
+		// rejects meters that share a name but not the tag keys
+		CaffeineCacheMetrics.monitor(meterRegistry, store.getConversations(), "chatMemory",
+				Tags.of("cache.manager", "chatMemoryStore", "name", "chatMemory"));
+		return store;
 	}
 
 	@Bean
-	MessageWindowChatMemory chatMemory(@Value("${petclinic.chat.memory.window-size}") int windowSize) {
+	MessageWindowChatMemory chatMemory(ChatMemoryStore store, ChatMemoryProperties properties,
+			MeterRegistry meterRegistry) {
+		Gauge.builder("petclinic.chat.memory.sessions", store, ChatMemoryStore::sessionCount)
+			.description("Conversations held in chat memory")
+			.register(meterRegistry);
+		Gauge.builder("petclinic.chat.memory.messages", store, ChatMemoryStore::messageCount)
+			.description("Messages held in chat memory across all conversations")
+			.register(meterRegistry);
 		return MessageWindowChatMemory.builder()
-			.chatMemoryRepository(new InMemoryChatMemoryRepository())
-			.maxMessages(windowSize)
+			.chatMemoryRepository(store)
+			.maxMessages(properties.windowSize())
 			.build();
 	}
 
@@ -17,7 +17,7 @@
 package org.springframework.samples.petclinic.chat;
 
 import org.springframework.http.MediaType;
-import org.springframework.samples.petclinic.security.User;
+import org.springframework.samples.petclinic.security.PetClinicUser;
 import org.springframework.samples.petclinic.security.UserRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -25,12 +25,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import reactor.core.publisher.Flux;
 
 /**
  * REST controller that accepts user chat messages and streams LLM responses as
- * Server-Sent Events.
+ * Server-Sent Events. Each request passes {@link ChatAdmissionControl} first and holds
+ * its stream slot until the response completes, fails or is cancelled.
  */
 @RestController
 @RequestMapping("/api/chat")
@@ -40,26 +42,28 @@ class ChatController {
 
 	private final UserRepository userRepository;
 
-	ChatController(ChatService chatService, UserRepository userRepository) {
+	private final ChatAdmissionControl admissionControl;
+
+	ChatController(ChatService chatService, UserRepository userRepository, ChatAdmissionControl admissionControl) {
 		this.chatService = chatService;
 		this.userRepository = userRepository;
+		this.admissionControl = admissionControl;
 	}
 
 	@PostMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-	Flux<ChatResponse> chat(@Valid @RequestBody ChatRequest request, Authentication auth) {
-		String userContext = buildUserContext(auth);
-		return chatService.chat(request.sessionId(), request.message(), userContext).map(ChatResponse::new);
+	Flux<ChatResponse> chat(@Valid @RequestBody ChatRequest request, Authentication auth,
+			HttpServletRequest httpRequest) {
+		ChatAdmissionControl.Permit permit = admissionControl.admit(request.sessionId(), httpRequest.getRemoteAddr());
+		return Flux.using(() -> permit, admitted -> {
+			String userContext = buildUserContext(auth);
+			return chatService.chat(request.sessionId(), request.message(), userContext).map(ChatResponse::new);
+		}, ChatAdmissionControl.Permit::close);
 	}
 
 	private String buildUserContext(Authentication auth) {
-		if (auth == null) {
-			return null;
-		}
-		return userRepository.findByEmail(auth.getName()).map(user -> {
-			String displayName = user.getOwner() != null
-					? user.getOwner().getFirstName() + " " + user.getOwner().getLastName() : user.getEmail();
-			String role = user.getRole().name();
-			if ("OWNER".equals(role)) {
+		return PetClinicUser.of(auth, userRepository).map(user -> {
+			String displayName = user.getDisplayName();
+			if (user.isOwner()) {
 				return "The current user is " + displayName
 						+ " (role: OWNER). Only provide information relevant to this user's pets and visits.";
 			}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Chat memory settings under {@code petclinic.chat.memory}.
+ *
+ * @param windowSize the number of messages of a conversation sent back to the model
+ * @param maxSessions the number of conversations kept; the least recently used are
+ * dropped beyond it
+ * @param idleTimeout how long a conversation is kept after its last message
+ * @param store where conversations are kept
+ */
+@ConfigurationProperties("petclinic.chat.memory")
+record ChatMemoryProperties(int windowSize, int maxSessions, Duration idleTimeout, Store store) {
+
+	ChatMemoryProperties {
+		windowSize = (windowSize > 0) ? windowSize : 20;
+		maxSessions = (maxSessions > 0) ? maxSessions : 10_000;
+		idleTimeout = (idleTimeout != null) ? idleTimeout : Duration.ofMinutes(30);
+		store = (store != null) ? store : Store.MEMORY;
+	}
+
+	enum Store {
+
+		/**
+		 * On the heap of each node; lost on restart.
+		 */
+		MEMORY,
+
+		/**
+		 * In the {@code chat_messages} table, shared by all nodes.
+		 */
+		JDBC
+
+	}
+
+}
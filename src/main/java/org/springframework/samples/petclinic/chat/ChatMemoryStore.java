@@ -0,0 +1,38 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+
+/**
+ * A {@link ChatMemoryRepository} that can report its size for the
+ * {@code petclinic.chat.memory.*} metrics.
+ */
+interface ChatMemoryStore extends ChatMemoryRepository {
+
+	/**
+	 * Return the number of conversations held.
+	 * @return the number of conversations
+	 */
+	long sessionCount();
+
+	/**
+	 * Return the number of messages held across all conversations.
+	 * @return the number of messages
+	 */
+	long messageCount();
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Flux;
+
+/**
+ * Instrumentation of the chat pipeline, published through Micrometer:
+ * <ul>
+ * <li>{@code petclinic.chat.stream} (observation): the whole streamed answer, tagged with
+ * its {@code source}, {@code model} or {@code cache}</li>
+ * <li>{@code petclinic.chat.first.token} (timer): the time until the first token</li>
+ * <li>{@code petclinic.chat.tokens} (summary): tokens sent to and received from the
+ * model, tagged with the {@code direction}</li>
+ * <li>{@code petclinic.chat.tool} (observation): each tool call, tagged with the
+ * {@code tool}</li>
+ * <li>{@code petclinic.chat.memory.load} (timer) and {@code petclinic.chat.memory.window}
+ * (summary): loading the conversation history and its size in messages</li>
+ * </ul>
+ */
+@Component
+class ChatMetrics {
+
+	private final MeterRegistry meterRegistry;
+
+	private final ObservationRegistry observationRegistry;
+
+	private final Timer memoryLoad;
+
+	private final DistributionSummary memoryWindow;
+
+	ChatMetrics(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.observationRegistry = observationRegistry;
+		this.memoryLoad = Timer.builder("petclinic.chat.memory.load")
+			.description("Time to load the conversation history of a chat turn")
+			.register(meterRegistry);
+		this.memoryWindow = DistributionSummary.builder("petclinic.chat.memory.window")
+			.description("Messages of conversation history sent with a chat turn")
+			.baseUnit("messages")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Load the conversation history, recording the time taken and its size.
+	 * @param loader loads the history
+	 * @return the history
+	 */
+	List<Message> loadHistory(Supplier<List<Message>> loader) {
+		List<Message> history = this.memoryLoad.record(loader);
+		this.memoryWindow.record(history.size());
+		return history;
+	}
+
+	/**
+	 * Observe a streamed answer from subscription until it completes, fails or is
+	 * cancelled, and the time until its first token.
+	 * @param tokens the answer
+	 * @param source {@code model} or {@code cache}
+	 * @return the observed answer
+	 */
+	Flux<String> observeStream(Flux<String> tokens, String source) {
+		Timer firstToken = Timer.builder("petclinic.chat.first.token")
+			.description("Time from the start of a chat answer to its first token")
+			.tag("source", source)
+			.register(this.meterRegistry);
+		return Flux.defer(() -> {
+			long start = System.nanoTime();
+			AtomicBoolean started = new AtomicBoolean();
+			Observation observation = Observation.createNotStarted("petclinic.chat.stream", this.observationRegistry)
+				.contextualName("chat stream")
+				.lowCardinalityKeyValue("source", source)
+				.start();
+			return tokens.doOnNext(token -> {
+				if (started.compareAndSet(false, true)) {
+					firstToken.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				}
+			})
+				.doOnError(observation::error)
+				// unlike doFinally, before the subscriber sees the end
+				.doOnTerminate(observation::stop)
+				.doOnCancel(observation::stop);
+		});
+	}
+
+	/**
+	 * Record the tokens the model reported for an answer.
+	 * @param usage the usage reported with the last response, may be {@code null}
+	 */
+	void recordUsage(Usage usage) {
+		if (usage == null) {
+			return;
+		}
+		recordTokens("input", usage.getPromptTokens());
+		recordTokens("output", usage.getCompletionTokens());
+	}
+
+	/**
+	 * Observe a tool call.
+	 * @param <T> the tool's result type
+	 * @param tool the tool name
+	 * @param call the tool body
+	 * @return the tool's result
+	 */
+	<T> T observeTool(String tool, Supplier<T> call) {
+		return Observation.createNotStarted("petclinic.chat.tool", this.observationRegistry)
+			.contextualName("chat tool " + tool)
+			.lowCardinalityKeyValue("tool", tool)
+			.observe(call);
+	}
+
+	private void recordTokens(String direction, Integer tokens) {
+		if (tokens != null && tokens > 0) {
+			DistributionSummary.builder("petclinic.chat.tokens")
+				.description("Tokens exchanged with the chat model per answer")
+				.baseUnit("tokens")
+				.tag("direction", direction)
+				.register(this.meterRegistry)
+				.record(tokens);
+		}
+	}
+
+}
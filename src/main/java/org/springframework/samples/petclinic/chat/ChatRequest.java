@@ -17,10 +17,12 @@
 package org.springframework.samples.petclinic.chat;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 /**
  * Inbound DTO for {@code POST /api/chat}. The {@code sessionId} is a browser-generated
- * UUID that scopes conversation memory; it has no authentication value.
+ * UUID that scopes conversation memory; it has no authentication value. Both fields are
+ * bounded because they are held in chat memory.
  */
-public record ChatRequest(@NotBlank String message, @NotBlank String sessionId) {
+public record ChatRequest(@NotBlank @Size(max = 4000) String message, @NotBlank @Size(max = 64) String sessionId) {
 }
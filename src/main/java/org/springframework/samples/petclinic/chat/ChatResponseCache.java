@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.samples.petclinic.vet.VetsChangedEvent;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+/**
+ * Answers to repeated, FAQ-style chat questions, held in the {@value #CACHE_NAME} cache
+ * so that asking "What are your hours?" again does not cost another model round trip.
+ * <p>
+ * Questions are matched on a normalized form: lower-cased, punctuation and common filler
+ * words removed and simple plurals folded, keeping the word order. Anonymous users share
+ * answers; ADMIN users only share answers given for the same user context, which names
+ * the user in the prompt. Answers for users with the OWNER role may contain their own
+ * data and are never cached, and neither are answers that used a tool (see
+ * {@link ChatService}). Entries are evicted, together with the
+ * {@value ChatTools#CACHE_NAME} cache, when the vet data changes. The clinic information
+ * is read at startup, so it cannot change while an answer is cached.
+ */
+@Component
+class ChatResponseCache {
+
+	static final String CACHE_NAME = "chatResponses";
+
+	private static final int MAX_QUESTION_LENGTH = 200;
+
+	private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private static final Set<String> FILLER_WORDS = Set.of("a", "an", "the", "is", "are", "do", "does", "can", "could",
+			"would", "will", "you", "your", "i", "me", "my", "we", "our", "please", "tell", "what", "whats", "which",
+			"who", "of", "for", "to", "in", "on", "at", "there", "any", "us", "hi", "hello", "thanks");
+
+	private final Cache answers;
+
+	private final Cache toolResults;
+
+	@Autowired
+	ChatResponseCache(CacheManager cacheManager) {
+		this(cacheManager.getCache(CACHE_NAME), cacheManager.getCache(ChatTools.CACHE_NAME));
+	}
+
+	ChatResponseCache(Cache answers, Cache toolResults) {
+		Assert.notNull(answers, () -> "No '" + CACHE_NAME + "' cache configured");
+		this.answers = answers;
+		this.toolResults = toolResults;
+	}
+
+	/**
+	 * Return the key under which the answer to the question may be shared.
+	 * @param question the question as asked
+	 * @param authentication the caller, or {@code null} if not authenticated
+	 * @param userContext the description of the caller added to the prompt, if any
+	 * @return the key, or empty if the answer must not be cached
+	 */
+	Optional<Key> keyFor(String question, Authentication authentication, String userContext) {
+		String scope = scopeOf(authentication);
+		if (scope == null || question.length() > MAX_QUESTION_LENGTH) {
+			return Optional.empty();
+		}
+		String normalized = normalize(question);
+		return normalized.isEmpty() ? Optional.empty() : Optional.of(new Key(scope, userContext, normalized));
+	}
+
+	Optional<String> get(Key key) {
+		return Optional.ofNullable(this.answers.get(key, String.class));
+	}
+
+	void put(Key key, String answer) {
+		if (!answer.isBlank()) {
+			this.answers.put(key, answer);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onVetsChanged(VetsChangedEvent event) {
+		this.answers.clear();
+		if (this.toolResults != null) {
+			this.toolResults.clear();
+		}
+	}
+
+	static String normalize(String question) {
+		return Arrays.stream(NON_WORD.split(question.toLowerCase(Locale.ROOT)))
+			.filter(word -> !word.isEmpty() && !FILLER_WORDS.contains(word))
+			.map(word -> (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss"))
+					? word.substring(0, word.length() - 1) : word)
+			.collect(Collectors.joining(" "));
+	}
+
+	private static String scopeOf(Authentication authentication) {
+		if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+				|| !authentication.isAuthenticated()) {
+			return "anonymous";
+		}
+		boolean owner = authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"));
+		boolean admin = authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+		return (admin && !owner) ? "admin" : null;
+	}
+
+	record Key(String scope, String userContext, String question) {
+	}
+
+}
@@ -16,9 +16,21 @@
 
 package org.springframework.samples.petclinic.chat;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import reactor.core.publisher.Flux;
@@ -27,6 +39,13 @@ import reactor.core.publisher.Flux;
  * Orchestrates the AI chat interaction: builds the prompt with the system message, user
  * message, and per-session memory advisor, then streams LLM tokens back as a
  * {@link Flux}.
+ * <p>
+ * The first question of a conversation may be answered from the
+ * {@link ChatResponseCache}; the cached answer is replayed word by word and recorded in
+ * the conversation memory as if the model had given it. Only answers given without a tool
+ * call are cached.
+ * <p>
+ * Each turn is instrumented through {@link ChatMetrics}.
  */
 @Service
 class ChatService {
@@ -49,24 +68,68 @@ class ChatService {
 			""";
 	// @formatter:on
 
+	private static final Pattern WORD_BOUNDARY = Pattern.compile("(?<=\\s)");
+
 	private final ChatClient chatClient;
 
 	private final ChatMemory chatMemory;
 
-	ChatService(ChatClient chatClient, ChatMemory chatMemory) {
+	private final ChatResponseCache responseCache;
+
+	private final ChatMetrics metrics;
+
+	ChatService(ChatClient chatClient, ChatMemory chatMemory, ChatResponseCache responseCache, ChatMetrics metrics) {
 		this.chatClient = chatClient;
 		this.chatMemory = chatMemory;
+		this.responseCache = responseCache;
+		this.metrics = metrics;
 	}
 
 	Flux<String> chat(String sessionId, String message, String userContext) {
+		List<Message> history = metrics.loadHistory(() -> chatMemory.get(sessionId));
+		Optional<ChatResponseCache.Key> key = history.isEmpty()
+				? responseCache.keyFor(message, SecurityContextHolder.getContext().getAuthentication(), userContext)
+				: Optional.empty();
+		AtomicBoolean toolsCalled = new AtomicBoolean();
+		if (key.isEmpty()) {
+			return metrics.observeStream(ask(sessionId, message, userContext, toolsCalled), "model");
+		}
+		Optional<String> cached = responseCache.get(key.get());
+		if (cached.isPresent()) {
+			chatMemory.add(sessionId,
+					List.of(new UserMessage(message), AssistantMessage.builder().content(cached.get()).build()));
+			return metrics.observeStream(Flux.fromArray(WORD_BOUNDARY.split(cached.get())), "cache");
+		}
+		StringBuilder answer = new StringBuilder();
+		// answers that read live data through a tool may be outdated by the next question
+		return metrics.observeStream(
+				ask(sessionId, message, userContext, toolsCalled).doOnNext(answer::append).doOnComplete(() -> {
+					if (!toolsCalled.get()) {
+						responseCache.put(key.get(), answer.toString());
+					}
+				}), "model");
+	}
+
+	private Flux<String> ask(String sessionId, String message, String userContext, AtomicBoolean toolsCalled) {
+		AtomicReference<Usage> usage = new AtomicReference<>();
 		String systemPrompt = (userContext != null && !userContext.isBlank()) ? userContext + "\n\n" + SYSTEM_PROMPT
 				: SYSTEM_PROMPT;
 		return chatClient.prompt()
 			.system(systemPrompt)
 			.user(message)
+			.toolContext(Map.of(RecordingToolCallback.TOOLS_CALLED, toolsCalled))
 			.advisors(MessageChatMemoryAdvisor.builder(chatMemory).conversationId(sessionId).build())
 			.stream()
-			.content();
+			.chatResponse()
+			.doOnNext(response -> {
+				// streamed responses repeat or omit the usage; keep the last one reported
+				Usage reported = (response.getMetadata() != null) ? response.getMetadata().getUsage() : null;
+				if (reported != null && reported.getTotalTokens() != null && reported.getTotalTokens() > 0) {
+					usage.set(reported);
+				}
+			})
+			.doOnComplete(() -> metrics.recordUsage(usage.get()))
+			.mapNotNull(response -> (response.getResult() != null) ? response.getResult().getOutput().getText() : null);
 	}
 
 }
@@ -17,19 +17,33 @@
 package org.springframework.samples.petclinic.chat;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.samples.petclinic.owner.PetTypeRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.samples.petclinic.owner.PetType;
+import org.springframework.samples.petclinic.owner.PetTypeRegistry;
+import org.springframework.samples.petclinic.owner.UpcomingVisit;
+import org.springframework.samples.petclinic.owner.VisitCalendar;
 import org.springframework.samples.petclinic.owner.VisitRepository;
-import org.springframework.samples.petclinic.security.User;
+import org.springframework.samples.petclinic.security.PetClinicUser;
 import org.springframework.samples.petclinic.security.UserRepository;
 import org.springframework.samples.petclinic.vet.Specialty;
+import org.springframework.samples.petclinic.vet.Vet;
 import org.springframework.samples.petclinic.vet.VetRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
 
 /**
  * Spring AI tool methods that give the LLM read-only access to live clinic data.
@@ -37,27 +51,59 @@ import org.springframework.stereotype.Component;
  * All return types are purpose-built summary records — never JPA entities — so the set of
  * fields exposed to the model is explicit and privacy-safe. Owner telephone numbers and
  * addresses are never included.
+ * <p>
+ * The model often calls the same tool several times in one turn, so results are held
+ * briefly in the {@value #CACHE_NAME} cache, keyed by tool, argument and the scope of
+ * data the caller may see: a user with the OWNER role only ever shares entries with their
+ * own owner record. The vet list is cached once as a {@link VetDirectory}, indexed by
+ * specialty.
  */
 @Component
 class ChatTools {
 
+	static final String CACHE_NAME = "chatTools";
+
+	private static final String ALL_DATA = "all";
+
+	private static final int MAX_VISITS = 10;
+
+	private static final int MAX_VISITS_PER_OWNER_LOOKUP = 20;
+
 	private final VetRepository vetRepository;
 
-	private final PetTypeRepository petTypeRepository;
+	private final PetTypeRegistry petTypes;
 
 	private final VisitRepository visitRepository;
 
+	private final VisitCalendar visitCalendar;
+
 	private final UserRepository userRepository;
 
+	private final Cache results;
+
+	private final ChatMetrics metrics;
+
 	@Value("${petclinic.chat.clinic-info}")
 	private String clinicInfo;
 
-	ChatTools(VetRepository vetRepository, PetTypeRepository petTypeRepository, VisitRepository visitRepository,
-			UserRepository userRepository) {
+	@Autowired
+	ChatTools(VetRepository vetRepository, PetTypeRegistry petTypes, VisitRepository visitRepository,
+			VisitCalendar visitCalendar, UserRepository userRepository, CacheManager cacheManager,
+			ChatMetrics metrics) {
+		this(vetRepository, petTypes, visitRepository, visitCalendar, userRepository, cacheManager.getCache(CACHE_NAME),
+				metrics);
+	}
+
+	ChatTools(VetRepository vetRepository, PetTypeRegistry petTypes, VisitRepository visitRepository,
+			VisitCalendar visitCalendar, UserRepository userRepository, Cache results, ChatMetrics metrics) {
+		Assert.notNull(results, () -> "No '" + CACHE_NAME + "' cache configured");
 		this.vetRepository = vetRepository;
-		this.petTypeRepository = petTypeRepository;
+		this.petTypes = petTypes;
 		this.visitRepository = visitRepository;
+		this.visitCalendar = visitCalendar;
 		this.userRepository = userRepository;
+		this.results = results;
+		this.metrics = metrics;
 	}
 
 	private boolean isOwnerRole() {
@@ -65,82 +111,124 @@ class ChatTools {
 		return auth != null && auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"));
 	}
 
-	private User getCurrentUser() {
-		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-		if (auth == null) {
-			return null;
-		}
-		return userRepository.findByEmail(auth.getName()).orElse(null);
+	private PetClinicUser getCurrentUser() {
+		return PetClinicUser.of(SecurityContextHolder.getContext().getAuthentication(), userRepository).orElse(null);
+	}
+
+	private <T> T cached(String tool, Object argument, String scope, Supplier<T> loader) {
+		return this.results.get(new ToolCall(tool, argument, scope), loader::get);
 	}
 
 	@Tool(description = "List all veterinarians and their specialties")
 	List<VetSummary> getVeterinarians() {
-		return vetRepository.findAll()
-			.stream()
-			.map(vet -> new VetSummary(vet.getFirstName() + " " + vet.getLastName(),
-					vet.getSpecialties().stream().map(Specialty::getName).toList()))
-			.toList();
+		return metrics.observeTool("getVeterinarians", () -> vetDirectory().all());
 	}
 
 	@Tool(description = "Find veterinarians by specialty name")
 	List<VetSummary> getVetsBySpecialty(String specialty) {
-		return getVeterinarians().stream()
-			.filter(vs -> vs.specialties().stream().anyMatch(s -> s.equalsIgnoreCase(specialty)))
-			.toList();
+		return metrics.observeTool("getVetsBySpecialty", () -> {
+			if (specialty == null) {
+				return List.of();
+			}
+			return vetDirectory().bySpecialty().getOrDefault(specialty.toLowerCase(Locale.ROOT), List.of());
+		});
 	}
 
 	@Tool(description = "List all pet types the clinic accepts")
 	List<String> getPetTypes() {
-		return petTypeRepository.findAll().stream().map(pt -> pt.getName()).toList();
+		return metrics.observeTool("getPetTypes", () -> petTypes.findAll().stream().map(PetType::getName).toList());
 	}
 
 	@Tool(description = "Get upcoming scheduled visits for a named owner")
 	List<VisitSummary> getUpcomingVisitsForOwner(String ownerLastName) {
+		return metrics.observeTool("getUpcomingVisitsForOwner", () -> findUpcomingVisitsForOwner(ownerLastName));
+	}
+
+	@Tool(description = "Get the next upcoming clinic visits across all owners")
+	List<VisitSummary> getUpcomingVisits() {
+		return metrics.observeTool("getUpcomingVisits", this::findUpcomingVisits);
+	}
+
+	@Tool(description = "Get general clinic information such as hours and services")
+	String getClinicInfo() {
+		return metrics.observeTool("getClinicInfo", () -> clinicInfo);
+	}
+
+	private List<VisitSummary> findUpcomingVisitsForOwner(String ownerLastName) {
 		if (isOwnerRole()) {
-			User user = getCurrentUser();
-			if (user == null || user.getOwner() == null) {
-				return List.of();
-			}
-			return visitRepository
-				.findUpcomingVisitsByOwnerId(user.getOwner().getId(), LocalDate.now(), LocalDate.now().plusYears(1))
-				.stream()
-				.map(uv -> new VisitSummary(uv.ownerName(), uv.petName(), uv.date(), uv.description()))
-				.toList();
+			return ownVisits();
 		}
 		if (ownerLastName == null || ownerLastName.isBlank()) {
 			return List.of();
 		}
-		String normalized = ownerLastName.toLowerCase();
-		return visitRepository.findUpcomingVisits(LocalDate.now(), LocalDate.now().plusYears(1))
-			.stream()
-			.filter(uv -> uv.ownerName().toLowerCase().contains(normalized))
-			.map(uv -> new VisitSummary(uv.ownerName(), uv.petName(), uv.date(), uv.description()))
-			.toList();
+		String normalized = ownerLastName.strip().toLowerCase(Locale.ROOT);
+		return cached("upcomingVisitsForOwner", normalized, ALL_DATA,
+				() -> visitRepository
+					.findUpcomingVisitsByOwnerName(normalized, LocalDate.now(), LocalDate.now().plusYears(1),
+							PageRequest.of(0, MAX_VISITS_PER_OWNER_LOOKUP))
+					.stream()
+					.map(ChatTools::toSummary)
+					.toList());
 	}
 
-	@Tool(description = "Get the next upcoming clinic visits across all owners")
-	List<VisitSummary> getUpcomingVisits() {
+	private List<VisitSummary> findUpcomingVisits() {
 		if (isOwnerRole()) {
-			User user = getCurrentUser();
-			if (user == null || user.getOwner() == null) {
-				return List.of();
-			}
-			return visitRepository
-				.findUpcomingVisitsByOwnerId(user.getOwner().getId(), LocalDate.now(), LocalDate.now().plusYears(1))
-				.stream()
-				.map(uv -> new VisitSummary(uv.ownerName(), uv.petName(), uv.date(), uv.description()))
-				.toList();
+			return ownVisits();
 		}
-		return visitRepository.findUpcomingVisits(LocalDate.now(), LocalDate.now().plusYears(1))
+		// the calendar answers from memory, so there is nothing to cache
+		return visitCalendar
+			.findUpcomingVisits(LocalDate.now(), LocalDate.now().plusYears(1), PageRequest.of(0, MAX_VISITS))
 			.stream()
-			.limit(10)
-			.map(uv -> new VisitSummary(uv.ownerName(), uv.petName(), uv.date(), uv.description()))
+			.map(ChatTools::toSummary)
 			.toList();
 	}
 
-	@Tool(description = "Get general clinic information such as hours and services")
-	String getClinicInfo() {
-		return clinicInfo;
+	private List<VisitSummary> ownVisits() {
+		PetClinicUser user = getCurrentUser();
+		if (user == null || user.getOwnerId() == null) {
+			return List.of();
+		}
+		Integer ownerId = user.getOwnerId();
+		return cached("ownVisits", null, "owner:" + ownerId,
+				() -> visitRepository
+					.findUpcomingVisitsByOwnerId(ownerId, LocalDate.now(), LocalDate.now().plusYears(1))
+					.stream()
+					.map(ChatTools::toSummary)
+					.toList());
+	}
+
+	private VetDirectory vetDirectory() {
+		return cached("vetDirectory", null, ALL_DATA, () -> VetDirectory.of(vetRepository.findAll()));
+	}
+
+	private static VisitSummary toSummary(UpcomingVisit visit) {
+		return new VisitSummary(visit.ownerName(), visit.petName(), visit.date(), visit.description());
+	}
+
+	private record ToolCall(String tool, Object argument, String scope) {
+	}
+
+	/**
+	 * The vets as tool results, with an index by lower-cased specialty name.
+	 */
+	record VetDirectory(List<VetSummary> all, Map<String, List<VetSummary>> bySpecialty) {
+
+		static VetDirectory of(Iterable<Vet> vets) {
+			List<VetSummary> all = new ArrayList<>();
+			Map<String, List<VetSummary>> bySpecialty = new HashMap<>();
+			for (Vet vet : vets) {
+				VetSummary summary = new VetSummary(vet.getFirstName() + " " + vet.getLastName(),
+						vet.getSpecialties().stream().map(Specialty::getName).toList());
+				all.add(summary);
+				for (String specialty : summary.specialties()) {
+					bySpecialty.computeIfAbsent(specialty.toLowerCase(Locale.ROOT), key -> new ArrayList<>())
+						.add(summary);
+				}
+			}
+			bySpecialty.replaceAll((specialty, summaries) -> List.copyOf(summaries));
+			return new VetDirectory(List.copyOf(all), Map.copyOf(bySpecialty));
+		}
+
 	}
 
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import java.time.Clock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Persistent chat memory, enabled with {@code petclinic.chat.memory.store=jdbc} so that
+ * conversations survive restarts and are shared by several nodes using one database.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "petclinic.chat.memory.store", havingValue = "jdbc")
+@EnableScheduling
+class JdbcChatMemoryConfiguration {
+
+	@Bean
+	JdbcChatMemoryStore chatMemoryStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			ChatMemoryProperties properties) {
+		return new JdbcChatMemoryStore(jdbcTemplate, transactionManager, properties.maxSessions(),
+				properties.idleTimeout(), Clock.systemUTC());
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps conversations in the {@code chat_messages} table so that they survive restarts
+ * and are shared by every node using the database. Each turn rewrites the conversation's
+ * message window and stamps it with the current time; {@link #purge()} periodically
+ * deletes conversations idle for longer than the timeout and, beyond the session limit,
+ * the least recently active ones.
+ * <p>
+ * Only user, assistant and system messages are stored; tool calls are not part of the
+ * conversation history.
+ * </p>
+ */
+class JdbcChatMemoryStore implements ChatMemoryStore {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final int maxSessions;
+
+	private final Duration idleTimeout;
+
+	private final Clock clock;
+
+	private volatile long sessionCount;
+
+	private volatile long messageCount;
+
+	JdbcChatMemoryStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, int maxSessions,
+			Duration idleTimeout, Clock clock) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.maxSessions = maxSessions;
+		this.idleTimeout = idleTimeout;
+		this.clock = clock;
+	}
+
+	@Override
+	public List<String> findConversationIds() {
+		return this.jdbcTemplate.queryForList("SELECT DISTINCT conversation_id FROM chat_messages", String.class);
+	}
+
+	@Override
+	public List<Message> findByConversationId(String conversationId) {
+		return this.jdbcTemplate.query(
+				"SELECT message_type, content FROM chat_messages WHERE conversation_id = ? ORDER BY message_index",
+				(rs, rowNum) -> toMessage(MessageType.valueOf(rs.getString(1)), rs.getString(2)), conversationId);
+	}
+
+	@Override
+	public void saveAll(String conversationId, List<Message> messages) {
+		Timestamp now = Timestamp.from(this.clock.instant());
+		List<Object[]> rows = new ArrayList<>();
+		for (Message message : messages) {
+			if (message.getMessageType() != MessageType.TOOL && message.getText() != null) {
+				rows.add(new Object[] { conversationId, rows.size(), message.getMessageType().name(), message.getText(),
+						now });
+			}
+		}
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.jdbcTemplate.update("DELETE FROM chat_messages WHERE conversation_id = ?", conversationId);
+			this.jdbcTemplate.batchUpdate("INSERT INTO chat_messages (conversation_id, message_index, message_type, "
+					+ "content, updated_at) VALUES (?, ?, ?, ?, ?)", rows);
+		});
+	}
+
+	@Override
+	public void deleteByConversationId(String conversationId) {
+		this.jdbcTemplate.update("DELETE FROM chat_messages WHERE conversation_id = ?", conversationId);
+	}
+
+	@Override
+	public long sessionCount() {
+		return this.sessionCount;
+	}
+
+	@Override
+	public long messageCount() {
+		return this.messageCount;
+	}
+
+	/**
+	 * Delete idle conversations and the least recently active ones beyond the session
+	 * limit, then refresh the counts reported by {@link #sessionCount()} and
+	 * {@link #messageCount()}.
+	 */
+	@Scheduled(fixedDelayString = "${petclinic.chat.memory.purge-interval:1m}")
+	synchronized void purge() {
+		Timestamp idleSince = Timestamp.from(this.clock.instant().minus(this.idleTimeout));
+		this.jdbcTemplate.update("DELETE FROM chat_messages WHERE updated_at < ?", idleSince);
+		List<String> byActivity = this.jdbcTemplate.queryForList(
+				"SELECT conversation_id FROM chat_messages GROUP BY conversation_id ORDER BY MAX(updated_at) DESC",
+				String.class);
+		if (byActivity.size() > this.maxSessions) {
+			this.jdbcTemplate.batchUpdate("DELETE FROM chat_messages WHERE conversation_id = ?",
+					byActivity.subList(this.maxSessions, byActivity.size())
+						.stream()
+						.map(id -> new Object[] { id })
+						.toList());
+		}
+		this.jdbcTemplate.query("SELECT COUNT(DISTINCT conversation_id), COUNT(*) FROM chat_messages", rs -> {
+			this.sessionCount = rs.getLong(1);
+			this.messageCount = rs.getLong(2);
+		});
+	}
+
+	private static Message toMessage(MessageType type, String content) {
+		return switch (type) {
+			case USER -> new UserMessage(content);
+			case SYSTEM -> new SystemMessage(content);
+			default -> AssistantMessage.builder().content(content).build();
+		};
+	}
+
+}
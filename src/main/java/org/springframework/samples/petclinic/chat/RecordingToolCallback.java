@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.chat;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * Tool callback that notes in the {@link ToolContext} of the prompt that a tool was
+ * called, so that {@link ChatService} does not cache answers built from live data.
+ */
+final class RecordingToolCallback implements ToolCallback {
+
+	/**
+	 * Tool context key of the {@link AtomicBoolean} set when a tool is called.
+	 */
+	static final String TOOLS_CALLED = "petclinic.toolsCalled";
+
+	private final ToolCallback delegate;
+
+	RecordingToolCallback(ToolCallback delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public ToolDefinition getToolDefinition() {
+		return this.delegate.getToolDefinition();
+	}
+
+	@Override
+	public ToolMetadata getToolMetadata() {
+		return this.delegate.getToolMetadata();
+	}
+
+	@Override
+	public String call(String toolInput) {
+		return this.delegate.call(toolInput);
+	}
+
+	@Override
+	public String call(String toolInput, ToolContext toolContext) {
+		if (toolContext != null && toolContext.getContext().get(TOOLS_CALLED) instanceof AtomicBoolean called) {
+			called.set(true);
+		}
+		return this.delegate.call(toolInput, toolContext);
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as the generic cell rate algorithm: a single
+ * {@link AtomicLong} holds the time at which the bucket would be full again, and a
+ * request is admitted if that time is no further ahead than the burst allows.
+ */
+final class TokenBucket {
+
+	private final long intervalNanos;
+
+	private final long toleranceNanos;
+
+	private final AtomicLong fullAt;
+
+	TokenBucket(ChatAdmissionProperties.Rate rate, long nowNanos) {
+		this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / rate.perMinute();
+		this.toleranceNanos = this.intervalNanos * (rate.burst() - 1);
+		this.fullAt = new AtomicLong(nowNanos);
+	}
+
+	/**
+	 * Take a token if one is available.
+	 * @param nowNanos the current {@link System#nanoTime()}
+	 * @return {@code true} if the request is admitted
+	 */
+	boolean tryAcquire(long nowNanos) {
+		while (true) {
+			long current = this.fullAt.get();
+			long base = (current - nowNanos > 0) ? current : nowNanos;
+			if (base - nowNanos > this.toleranceNanos) {
+				return false;
+			}
+			if (this.fullAt.compareAndSet(current, base + this.intervalNanos)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Give back a token taken by {@link #tryAcquire(long)} for a request that was
+	 * rejected by another limit.
+	 */
+	void refund() {
+		this.fullAt.addAndGet(-this.intervalNanos);
+	}
+
+	/**
+	 * Return how long until the next token is available.
+	 * @param nowNanos the current {@link System#nanoTime()}
+	 * @return the wait in nanoseconds, zero if a token is available now
+	 */
+	long nanosUntilAvailable(long nowNanos) {
+		return Math.max(0, this.fullAt.get() - this.toleranceNanos - nowNanos);
+	}
+
+}
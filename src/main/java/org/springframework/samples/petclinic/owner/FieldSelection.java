@@ -0,0 +1,119 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The {@code fields} request parameter of the JSON API: a comma-separated list of the
+ * properties a client wants in each returned object. Without it every property of the
+ * projection record is returned; with it each record is reduced to a map of the selected
+ * properties, in the order the record declares them.
+ */
+final class FieldSelection {
+
+	private static final FieldSelection ALL = new FieldSelection(null);
+
+	private final Set<String> names;
+
+	private FieldSelection(Set<String> names) {
+		this.names = names;
+	}
+
+	/**
+	 * Parse the {@code fields} request parameter.
+	 * @param fields the parameter value, or {@code null} to select every field
+	 * @return the selection
+	 */
+	static FieldSelection parse(String fields) {
+		if (!StringUtils.hasText(fields)) {
+			return ALL;
+		}
+		Set<String> names = new LinkedHashSet<>();
+		for (String name : StringUtils.commaDelimitedListToStringArray(fields)) {
+			if (StringUtils.hasText(name)) {
+				names.add(name.strip());
+			}
+		}
+		return names.isEmpty() ? ALL : new FieldSelection(names);
+	}
+
+	/**
+	 * Whether the given field is selected, so that callers can skip loading data for
+	 * fields nobody asked for.
+	 */
+	boolean includes(String name) {
+		return this.names == null || this.names.contains(name);
+	}
+
+	/**
+	 * Reduce the given records to the selected fields.
+	 * @throws ResponseStatusException with status 400 if a selected field does not exist
+	 */
+	List<Object> apply(List<? extends Record> records, Class<? extends Record> type) {
+		validate(type);
+		return records.stream().map(this::select).toList();
+	}
+
+	/**
+	 * Reduce the given record to the selected fields.
+	 * @throws ResponseStatusException with status 400 if a selected field does not exist
+	 */
+	Object apply(Record record) {
+		validate(record.getClass());
+		return select(record);
+	}
+
+	private void validate(Class<? extends Record> type) {
+		if (this.names == null) {
+			return;
+		}
+		Set<String> known = new LinkedHashSet<>();
+		Arrays.stream(type.getRecordComponents()).map(RecordComponent::getName).forEach(known::add);
+		for (String name : this.names) {
+			if (!known.contains(name)) {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+						"Unknown field '" + name + "', expected one of " + known);
+			}
+		}
+	}
+
+	private Object select(Record record) {
+		if (this.names == null) {
+			return record;
+		}
+		Map<String, Object> selected = new LinkedHashMap<>();
+		for (RecordComponent component : record.getClass().getRecordComponents()) {
+			if (this.names.contains(component.getName())) {
+				selected.put(component.getName(), ReflectionUtils.invokeMethod(component.getAccessor(), record));
+			}
+		}
+		return selected;
+	}
+
+}
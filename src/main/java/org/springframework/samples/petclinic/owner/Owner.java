@@ -26,12 +26,15 @@ import org.springframework.util.Assert;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.NotBlank;
 
@@ -46,10 +49,17 @@ import jakarta.validation.constraints.NotBlank;
  * @author Wick Dynex
  */
 @Entity
+@NamedEntityGraph(name = Owner.WITH_PETS, attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pet"),
+		subgraphs = @NamedSubgraph(name = "pet", attributeNodes = @NamedAttributeNode("type")))
 @Table(name = "owners", uniqueConstraints = @UniqueConstraint(name = "uc_owner_name_telephone",
 		columnNames = { "first_name", "last_name", "telephone" }))
 public class Owner extends Person {
 
+	/**
+	 * Fetch profile loading the owner with its pets and their types, but no visits.
+	 */
+	public static final String WITH_PETS = "Owner.withPets";
+
 	@Column(name = "address")
 	@NotBlank
 	private String address;
@@ -63,7 +73,27 @@ public class Owner extends Person {
 	@Pattern(regexp = "\\d{10}", message = "{telephone.invalid}")
 	private String telephone;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+	/**
+	 * Lower-cased copy of {@code last_name}, computed by the database and indexed so that
+	 * case-insensitive prefix searches do not need to wrap the column in a function.
+	 */
+	@Column(name = "last_name_search", insertable = false, updatable = false)
+	private String lastNameSearch;
+
+	/**
+	 * Lower-cased copy of {@code city}, computed by the database and indexed.
+	 */
+	@Column(name = "city_search", insertable = false, updatable = false)
+	private String citySearch;
+
+	/**
+	 * Incremented by every update of the owner row, including changes to the pets list.
+	 * Part of the owner page's version (see {@link OwnerVersion}).
+	 */
+	@Version
+	private Integer version;
+
+	@OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
 	@JoinColumn(name = "owner_id")
 	@OrderBy("name")
 	private final List<Pet> pets = new ArrayList<>();
@@ -92,6 +122,10 @@ public class Owner extends Person {
 		this.telephone = telephone;
 	}
 
+	String getLastNameSearch() {
+		return this.lastNameSearch;
+	}
+
 	public List<Pet> getPets() {
 		return this.pets;
 	}
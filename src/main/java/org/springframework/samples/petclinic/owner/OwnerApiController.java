@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.security.PetClinicUser;
+import org.springframework.samples.petclinic.security.UserRepository;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Read-only JSON API for owners, their pets and the pets' visits, for integrations that
+ * would otherwise scrape the owner pages.
+ * <p>
+ * Responses are built from projection records read by constructor-expression queries,
+ * never from entities, so a request only loads the columns it returns. The {@code fields}
+ * parameter narrows each object to the listed properties (see {@link FieldSelection});
+ * leaving out {@code pets} on an owner also skips the pets query. Every response carries
+ * an {@code ETag} and {@code Cache-Control: no-cache, private}, so clients revalidate
+ * with {@code If-None-Match} and receive a bodiless 304 when nothing changed. The ETag of
+ * an owner and of its pets and visits is the {@link OwnerVersion}, checked before any of
+ * them is loaded (see {@link OwnerConditionalGetConfiguration}); a page of the owner list
+ * has no such version, so its ETag is a hash of the JSON written.
+ * <p>
+ * Users with the OWNER role can only read their own owner record.
+ */
+@RestController
+@RequestMapping("/api/v1/owners")
+class OwnerApiController {
+
+	static final int PAGE_SIZE = 20;
+
+	private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+	private final OwnerRepository owners;
+
+	private final VisitRepository visits;
+
+	private final UserRepository userRepository;
+
+	OwnerApiController(OwnerRepository owners, VisitRepository visits, UserRepository userRepository) {
+		this.owners = owners;
+		this.visits = visits;
+		this.userRepository = userRepository;
+	}
+
+	@GetMapping
+	ResponseEntity<OwnerPage> listOwners(@RequestParam(defaultValue = "") String lastName,
+			@RequestParam(defaultValue = "1") int page, @RequestParam(required = false) String fields,
+			Authentication auth) {
+		int currentPage = Math.max(page, 1);
+		Slice<OwnerSummary> slice;
+		Integer linkedOwnerId = linkedOwnerId(auth);
+		if (linkedOwnerId != null) {
+			// OWNER-role users can only ever find their own record
+			String prefix = lastName.toLowerCase(Locale.ROOT);
+			List<OwnerSummary> own = (currentPage > 1) ? List.of()
+					: this.owners.findSummaryById(linkedOwnerId)
+						.filter(owner -> owner.lastName().toLowerCase(Locale.ROOT).startsWith(prefix))
+						.stream()
+						.toList();
+			slice = new SliceImpl<>(own);
+		}
+		else {
+			slice = this.owners.findSummariesByLastNameStartingWith(lastName,
+					PageRequest.of(currentPage - 1, PAGE_SIZE));
+		}
+		List<Object> content = FieldSelection.parse(fields).apply(slice.getContent(), OwnerSummary.class);
+		return conditional(new OwnerPage(content, currentPage, slice.hasNext()));
+	}
+
+	@GetMapping("/{ownerId}")
+	ResponseEntity<Object> showOwner(@PathVariable("ownerId") int ownerId,
+			@RequestParam(required = false) String fields, Authentication auth) {
+		checkAccess(ownerId, auth);
+		FieldSelection selection = FieldSelection.parse(fields);
+		OwnerSummary owner = this.owners.findSummaryById(ownerId).orElseThrow(() -> ownerNotFound(ownerId));
+		List<PetSummary> pets = selection.includes("pets") ? this.owners.findPetSummariesByOwnerId(ownerId) : List.of();
+		return conditional(selection.apply(OwnerDetails.of(owner, pets)));
+	}
+
+	@GetMapping("/{ownerId}/pets")
+	ResponseEntity<List<Object>> listPets(@PathVariable("ownerId") int ownerId,
+			@RequestParam(required = false) String fields, Authentication auth) {
+		checkAccess(ownerId, auth);
+		List<PetSummary> pets = this.owners.findPetSummariesByOwnerId(ownerId);
+		if (pets.isEmpty() && !this.owners.existsById(ownerId)) {
+			throw ownerNotFound(ownerId);
+		}
+		return conditional(FieldSelection.parse(fields).apply(pets, PetSummary.class));
+	}
+
+	@GetMapping("/{ownerId}/pets/{petId}/visits")
+	ResponseEntity<List<Object>> listVisits(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
+			@RequestParam(required = false) String fields, Authentication auth) {
+		checkAccess(ownerId, auth);
+		List<VisitSummary> petVisits = this.visits.findSummariesByOwnerIdAndPetId(ownerId, petId);
+		if (petVisits.isEmpty() && !this.owners.existsPet(ownerId, petId)) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+					"Pet not found with id: " + petId + " for owner: " + ownerId);
+		}
+		return conditional(FieldSelection.parse(fields).apply(petVisits, VisitSummary.class));
+	}
+
+	private static <T> ResponseEntity<T> conditional(T body) {
+		return ResponseEntity.ok().cacheControl(REVALIDATE).body(body);
+	}
+
+	private Integer linkedOwnerId(Authentication auth) {
+		boolean ownerRole = auth != null
+				&& auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"));
+		if (!ownerRole) {
+			return null;
+		}
+		return PetClinicUser.of(auth, this.userRepository)
+			.map(PetClinicUser::getOwnerId)
+			.orElseThrow(() -> new AccessDeniedException("Access denied"));
+	}
+
+	private void checkAccess(int ownerId, Authentication auth) {
+		Integer linkedOwnerId = linkedOwnerId(auth);
+		if (linkedOwnerId != null && linkedOwnerId != ownerId) {
+			throw new AccessDeniedException("Access denied");
+		}
+	}
+
+	private static ResponseStatusException ownerNotFound(int ownerId) {
+		return new ResponseStatusException(HttpStatus.NOT_FOUND, "Owner not found with id: " + ownerId);
+	}
+
+	/**
+	 * One page of the owner list. There is no total count: {@code hasNext} tells whether
+	 * {@code page + 1} has any owners.
+	 */
+	record OwnerPage(List<Object> owners, int page, boolean hasNext) {
+	}
+
+}
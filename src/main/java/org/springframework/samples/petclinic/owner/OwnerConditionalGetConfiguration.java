@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Map;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.samples.petclinic.system.ConditionalGetInterceptor;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Revalidates the owner details and upcoming visits pages before their handlers load
+ * anything: the owner page and the owner API against the {@link OwnerVersion} read by one
+ * aggregate query, the upcoming visits against the {@link VisitCalendar} version and the
+ * last booking pushed to live pages. OWNER users read their upcoming visits from the
+ * database rather than from this node's calendar, so their page is always rendered. A
+ * page of the owner API's list has no version to read first, so its ETag is a hash of the
+ * JSON written.
+ */
+@Configuration(proxyBeanMethods = false)
+class OwnerConditionalGetConfiguration {
+
+	@Bean
+	MappedInterceptor ownerDetailsConditionalGet(OwnerRepository owners, MeterRegistry registry) {
+		return ConditionalGetInterceptor.mapped(request -> ownerVersion(owners, request), registry, "/owners/{ownerId}",
+				"/api/v1/owners/{ownerId}", "/api/v1/owners/{ownerId}/pets",
+				"/api/v1/owners/{ownerId}/pets/{petId}/visits");
+	}
+
+	@Bean
+	FilterRegistrationBean<ShallowEtagHeaderFilter> ownerListEtag() {
+		FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(
+				new ShallowEtagHeaderFilter());
+		registration.addUrlPatterns("/api/v1/owners");
+		return registration;
+	}
+
+	// the booking sequence is also the page's resume point for its live feed
+	@Bean
+	MappedInterceptor upcomingVisitsConditionalGet(VisitCalendar calendar, UpcomingVisitsBroadcaster broadcaster,
+			MeterRegistry registry) {
+		return ConditionalGetInterceptor.mappedPerProcess(
+				request -> request.isUserInRole("OWNER") ? null : calendar.version() + "." + broadcaster.lastEventId(),
+				registry, "/visits/upcoming");
+	}
+
+	/**
+	 * Return the version of the requested owner, or {@code null} for other handlers
+	 * matching the pattern, such as {@code /owners/new}, and for unknown owners.
+	 */
+	private static OwnerVersion ownerVersion(OwnerRepository owners, HttpServletRequest request) {
+		@SuppressWarnings("unchecked")
+		Map<String, String> variables = (Map<String, String>) request
+			.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		String ownerId = (variables != null) ? variables.get("ownerId") : null;
+		if (ownerId == null) {
+			return null;
+		}
+		try {
+			return owners.findVersionById(Integer.valueOf(ownerId)).orElse(null);
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+}
@@ -15,19 +15,26 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.samples.petclinic.security.User;
+import org.springframework.samples.petclinic.owner.OwnerFetch.Profile;
+import org.springframework.samples.petclinic.security.PetClinicUser;
 import org.springframework.samples.petclinic.security.UserRepository;
-import org.springframework.samples.petclinic.system.ResourceNotFoundException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
@@ -39,8 +46,10 @@ import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 
@@ -58,21 +67,36 @@ class OwnerController {
 
 	private static final String VIEWS_OWNER_CREATE_OR_UPDATE_FORM = "owners/createOrUpdateOwnerForm";
 
+	private static final int PAGE_SIZE = 5;
+
+	private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
 	private final OwnerRepository owners;
 
 	private final UserRepository userRepository;
 
-	public OwnerController(OwnerRepository owners, UserRepository userRepository) {
+	private final OwnerCsvExporter csvExporter;
+
+	private final OwnerResolver ownerResolver;
+
+	private final boolean keysetPagination;
+
+	public OwnerController(OwnerRepository owners, UserRepository userRepository, OwnerCsvExporter csvExporter,
+			OwnerResolver ownerResolver,
+			@Value("${petclinic.owners.keyset-pagination:false}") boolean keysetPagination) {
 		this.owners = owners;
 		this.userRepository = userRepository;
+		this.csvExporter = csvExporter;
+		this.ownerResolver = ownerResolver;
+		this.keysetPagination = keysetPagination;
 	}
 
 	private boolean isOwnerRoleUser(Authentication auth) {
 		return auth != null && auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"));
 	}
 
-	private User resolveCurrentUser(Authentication auth) {
-		return userRepository.findByEmail(auth.getName())
+	private PetClinicUser resolveCurrentUser(Authentication auth) {
+		return PetClinicUser.of(auth, this.userRepository)
 			.orElseThrow(() -> new IllegalStateException("Authenticated user not found: " + auth.getName()));
 	}
 
@@ -83,10 +107,7 @@ class OwnerController {
 
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable(name = "ownerId", required = false) Integer ownerId) {
-		return ownerId == null ? new Owner()
-				: this.owners.findById(ownerId)
-					.orElseThrow(() -> new ResourceNotFoundException(
-							"Owner not found with id: " + ownerId + ". Please ensure the ID is correct."));
+		return ownerId == null ? new Owner() : this.ownerResolver.resolve(ownerId);
 	}
 
 	@GetMapping("/owners/new")
@@ -127,8 +148,9 @@ class OwnerController {
 	}
 
 	@GetMapping("/owners")
-	public String processFindForm(@RequestParam(defaultValue = "1") int page, Owner owner, BindingResult result,
-			Model model, Authentication auth) {
+	public String processFindForm(@RequestParam(defaultValue = "1") int page,
+			@RequestParam(required = false) String cursor, Owner owner, BindingResult result, Model model,
+			Authentication auth) {
 		// Normalize empty strings to null so the repository treats them as "no filter"
 		String lastName = nullIfEmpty(owner.getLastName());
 		String telephone = nullIfEmpty(owner.getTelephone());
@@ -140,34 +162,63 @@ class OwnerController {
 			return "owners/findOwners";
 		}
 
-		Page<Owner> ownersResults = findPaginatedByFilters(page, lastName, telephone, city);
-
-		// For OWNER-role users, filter results to only show their own record
+		// OWNER-role users can only ever find their own record
 		if (isOwnerRoleUser(auth)) {
-			User currentUser = resolveCurrentUser(auth);
-			int linkedOwnerId = currentUser.getOwner().getId();
-			List<Owner> filtered = ownersResults.getContent()
-				.stream()
-				.filter(o -> o.getId() != null && o.getId().equals(linkedOwnerId))
-				.toList();
-			if (filtered.isEmpty()) {
+			int linkedOwnerId = resolveCurrentUser(auth).getOwnerId();
+			if (!this.owners.matchesFilters(linkedOwnerId, lastName, telephone, city)) {
 				result.reject("notFound", "not found");
 				return "owners/findOwners";
 			}
-			return "redirect:/owners/" + filtered.get(0).getId();
+			return "redirect:/owners/" + linkedOwnerId;
+		}
+
+		// A cursor in the request (or keyset mode being switched on) selects seek paging
+		if (cursor != null || this.keysetPagination) {
+			OwnerCursor position = decodeCursor(cursor);
+			Slice<Owner> slice = owners.findByFilters(lastName, telephone, city, position, PAGE_SIZE);
+			String view = selectSingleOrReject(slice, position == null && slice.getNumberOfElements() == 1, result);
+			if (view != null) {
+				return view;
+			}
+			return addKeysetModel(model, slice, position, lastName, telephone, city);
 		}
 
+		Page<Owner> ownersResults = findPaginatedByFilters(page, lastName, telephone, city);
+		String view = selectSingleOrReject(ownersResults, ownersResults.getTotalElements() == 1, result);
+		if (view != null) {
+			return view;
+		}
+		return addPaginationModel(page, model, ownersResults, lastName, telephone, city);
+	}
+
+	/**
+	 * Handle the outcomes of a search that do not render the list: an empty result is
+	 * reported on the form and a single match redirects to its details page.
+	 * @return the view to render, or {@code null} if the list should be shown
+	 */
+	private String selectSingleOrReject(Slice<Owner> ownersResults, boolean singleMatch, BindingResult result) {
 		if (ownersResults.isEmpty()) {
 			result.reject("notFound", "not found");
 			return "owners/findOwners";
 		}
 
-		if (ownersResults.getTotalElements() == 1) {
-			owner = ownersResults.iterator().next();
-			return "redirect:/owners/" + owner.getId();
+		if (singleMatch) {
+			return "redirect:/owners/" + ownersResults.getContent().get(0).getId();
 		}
+		return null;
+	}
 
-		return addPaginationModel(page, model, ownersResults, lastName, telephone, city);
+	private static OwnerCursor decodeCursor(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			return OwnerCursor.decode(cursor);
+		}
+		catch (IllegalArgumentException ex) {
+			// Tampered or stale token: start again from the first page
+			return null;
+		}
 	}
 
 	private static String nullIfEmpty(String value) {
@@ -175,42 +226,67 @@ class OwnerController {
 	}
 
 	@GetMapping(value = "/owners.csv", produces = "text/csv")
-	public ResponseEntity<String> exportOwnersCsv(@RequestParam(defaultValue = "") String lastName) {
-		List<Owner> results = owners.findByLastNameStartingWith(lastName, Pageable.unpaged()).getContent();
-		StringBuilder csv = new StringBuilder("id,firstName,lastName,address,city,telephone\n");
-		for (Owner owner : results) {
-			csv.append('"')
-				.append(owner.getId())
-				.append('"')
-				.append(',')
-				.append(csvField(owner.getFirstName()))
-				.append(',')
-				.append(csvField(owner.getLastName()))
-				.append(',')
-				.append(csvField(owner.getAddress()))
-				.append(',')
-				.append(csvField(owner.getCity()))
-				.append(',')
-				.append(csvField(owner.getTelephone()))
-				.append('\n');
+	public ResponseEntity<StreamingResponseBody> exportOwnersCsv(@RequestParam(defaultValue = "") String lastName,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+			.contentType(CSV)
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (!acceptsGzip(acceptEncoding)) {
+			return response.body(out -> this.csvExporter.export(lastName, out));
+		}
+		return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+			GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+			this.csvExporter.export(lastName, gzip);
+			gzip.finish();
+		});
+	}
+
+	/**
+	 * Whether the {@code Accept-Encoding} header accepts gzip, named or through
+	 * {@code *}, with a q-value above zero. A {@code gzip} entry takes precedence over
+	 * {@code *}.
+	 */
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		Double gzip = null;
+		Double any = null;
+		for (String entry : acceptEncoding.split(",")) {
+			String[] parts = entry.split(";");
+			String coding = parts[0].strip().toLowerCase(Locale.ROOT);
+			double quality = 1;
+			for (int i = 1; i < parts.length; i++) {
+				String parameter = parts[i].strip();
+				if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+					quality = parseQuality(parameter.substring(2));
+				}
+			}
+			if (coding.equals("gzip") || coding.equals("x-gzip")) {
+				gzip = quality;
+			}
+			else if (coding.equals("*")) {
+				any = quality;
+			}
 		}
-		return ResponseEntity.ok(csv.toString());
+		Double quality = (gzip != null) ? gzip : any;
+		return quality != null && quality > 0;
 	}
 
-	private static String csvField(String value) {
-		if (value == null) {
-			return "\"\"";
+	private static double parseQuality(String value) {
+		try {
+			return Double.parseDouble(value.strip());
 		}
-		String sanitized = value.replace("\r\n", " ").replace('\r', ' ').replace('\n', ' ');
-		if (!sanitized.isEmpty() && "=+-@".indexOf(sanitized.charAt(0)) >= 0) {
-			sanitized = "'" + sanitized;
+		catch (NumberFormatException ex) {
+			// a malformed weight does not count as accepting the coding
+			return 0;
 		}
-		return "\"" + sanitized.replace("\"", "\"\"") + "\"";
 	}
 
 	private String addPaginationModel(int page, Model model, Page<Owner> paginated, String lastName, String telephone,
 			String city) {
 		List<Owner> listOwners = paginated.getContent();
+		model.addAttribute("keyset", false);
 		model.addAttribute("currentPage", page);
 		model.addAttribute("totalPages", paginated.getTotalPages());
 		model.addAttribute("totalItems", paginated.getTotalElements());
@@ -221,17 +297,36 @@ class OwnerController {
 		return "owners/ownersList";
 	}
 
+	private String addKeysetModel(Model model, Slice<Owner> slice, OwnerCursor position, String lastName,
+			String telephone, String city) {
+		List<Owner> listOwners = slice.getContent();
+		boolean backward = position != null && position.backward();
+		// Reading backwards, "more rows" means more rows before this page, and there
+		// is always a next page because we came from it. Reading forwards it is the
+		// other way round.
+		boolean hasPrevious = backward ? slice.hasNext() : position != null;
+		boolean hasNext = backward || slice.hasNext();
+		model.addAttribute("keyset", true);
+		model.addAttribute("listOwners", listOwners);
+		model.addAttribute("previousCursor", hasPrevious ? OwnerCursor.before(listOwners.get(0)).encode() : null);
+		model.addAttribute("nextCursor",
+				hasNext ? OwnerCursor.after(listOwners.get(listOwners.size() - 1)).encode() : null);
+		model.addAttribute("lastName", lastName);
+		model.addAttribute("telephone", telephone);
+		model.addAttribute("city", city);
+		return "owners/ownersList";
+	}
+
 	private Page<Owner> findPaginatedByFilters(int page, String lastName, String telephone, String city) {
-		int pageSize = 5;
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
+		Pageable pageable = PageRequest.of(page - 1, PAGE_SIZE);
 		return owners.findByFilters(lastName, telephone, city, pageable);
 	}
 
 	@GetMapping("/owners/{ownerId}/edit")
 	public String initUpdateOwnerForm(@PathVariable("ownerId") int ownerId, Authentication auth) {
 		if (isOwnerRoleUser(auth)) {
-			User currentUser = resolveCurrentUser(auth);
-			if (!currentUser.getOwner().getId().equals(ownerId)) {
+			PetClinicUser currentUser = resolveCurrentUser(auth);
+			if (!currentUser.getOwnerId().equals(ownerId)) {
 				throw new AccessDeniedException("Access denied");
 			}
 		}
@@ -242,8 +337,8 @@ class OwnerController {
 	public String processUpdateOwnerForm(@Valid Owner owner, BindingResult result, @PathVariable("ownerId") int ownerId,
 			RedirectAttributes redirectAttributes, Authentication auth) {
 		if (isOwnerRoleUser(auth)) {
-			User currentUser = resolveCurrentUser(auth);
-			if (!currentUser.getOwner().getId().equals(ownerId)) {
+			PetClinicUser currentUser = resolveCurrentUser(auth);
+			if (!currentUser.getOwnerId().equals(ownerId)) {
 				throw new AccessDeniedException("Access denied");
 			}
 		}
@@ -286,19 +381,18 @@ class OwnerController {
 	 * @return a ModelMap with the model attributes for the view
 	 */
 	@GetMapping("/owners/{ownerId}")
+	@OwnerFetch(Profile.PETS_AND_VISITS)
 	public ModelAndView showOwner(@PathVariable("ownerId") int ownerId, Authentication auth) {
 		ModelAndView mav = new ModelAndView("owners/ownerDetails");
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new ResourceNotFoundException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 		if (isOwnerRoleUser(auth)) {
-			User currentUser = resolveCurrentUser(auth);
-			if (!currentUser.getOwner().getId().equals(ownerId)) {
+			PetClinicUser currentUser = resolveCurrentUser(auth);
+			if (!currentUser.getOwnerId().equals(ownerId)) {
 				throw new AccessDeniedException("Access denied");
 			}
 		}
+		// The details page lists every pet with its visit history
 		mav.addObject("canEdit", true);
-		mav.addObject(owner);
+		mav.addObject(this.ownerResolver.resolve(ownerId));
 		return mav;
 	}
 
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes the owners CSV export straight from a database cursor to an output stream.
+ * <p>
+ * Rows are read as {@link OwnerCsvRow} projections and written one at a time through a
+ * small buffer, so memory use stays flat no matter how many owners are exported.
+ * </p>
+ */
+@Component
+public class OwnerCsvExporter {
+
+	static final String HEADER = "id,firstName,lastName,address,city,telephone\n";
+
+	private final OwnerRepository owners;
+
+	public OwnerCsvExporter(OwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	/**
+	 * Write every owner whose last name starts with {@code lastName} as CSV. The output
+	 * stream is flushed but not closed.
+	 * @param lastName last name prefix, empty for all owners
+	 * @param out where to write the UTF-8 encoded CSV
+	 * @return the number of data rows written
+	 * @throws IOException if writing to {@code out} fails
+	 */
+	@Transactional(readOnly = true)
+	public long export(String lastName, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writer.write(HEADER);
+		long count = 0;
+		try (Stream<OwnerCsvRow> rows = this.owners.streamCsvRowsByLastNameStartingWith(lastName)) {
+			Iterator<OwnerCsvRow> iterator = rows.iterator();
+			while (iterator.hasNext()) {
+				writeRow(writer, iterator.next());
+				count++;
+			}
+		}
+		writer.flush();
+		return count;
+	}
+
+	private static void writeRow(Writer writer, OwnerCsvRow row) throws IOException {
+		writer.write('"');
+		writer.write(String.valueOf(row.id()));
+		writer.write('"');
+		writer.write(',');
+		writeField(writer, row.firstName());
+		writer.write(',');
+		writeField(writer, row.lastName());
+		writer.write(',');
+		writeField(writer, row.address());
+		writer.write(',');
+		writeField(writer, row.city());
+		writer.write(',');
+		writeField(writer, row.telephone());
+		writer.write('\n');
+	}
+
+	/**
+	 * Write a quoted CSV field. Line breaks are flattened to spaces and values starting
+	 * with a formula character are prefixed with {@code '} to defuse CSV injection.
+	 */
+	private static void writeField(Writer writer, String value) throws IOException {
+		writer.write('"');
+		if (value != null) {
+			if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+				writer.write('\'');
+			}
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if (c == '\r') {
+					// "\r\n" collapses to a single space, a lone '\r' becomes one
+					if (i + 1 < value.length() && value.charAt(i + 1) == '\n') {
+						i++;
+					}
+					writer.write(' ');
+				}
+				else if (c == '\n') {
+					writer.write(' ');
+				}
+				else if (c == '"') {
+					writer.write("\"\"");
+				}
+				else {
+					writer.write(c);
+				}
+			}
+		}
+		writer.write('"');
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the owner list for keyset (seek) pagination. The list is ordered by
+ * {@code (lastNameSearch, id)}; a cursor names the row to continue from and whether to
+ * read the rows after it or the rows before it.
+ * <p>
+ * Cursors travel to the browser as opaque, URL-safe tokens so the view does not need to
+ * know anything about the sort key.
+ * </p>
+ *
+ * @param lastNameSearch lower-cased last name of the boundary row
+ * @param id id of the boundary row
+ * @param backward {@code true} to read the rows before the boundary row
+ */
+public record OwnerCursor(String lastNameSearch, int id, boolean backward) {
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	/**
+	 * Create a cursor that continues after the given owner.
+	 * @param owner the last owner on the current page
+	 * @return a forward cursor
+	 */
+	static OwnerCursor after(Owner owner) {
+		return new OwnerCursor(searchKey(owner), owner.getId(), false);
+	}
+
+	/**
+	 * Create a cursor that continues before the given owner.
+	 * @param owner the first owner on the current page
+	 * @return a backward cursor
+	 */
+	static OwnerCursor before(Owner owner) {
+		return new OwnerCursor(searchKey(owner), owner.getId(), true);
+	}
+
+	private static String searchKey(Owner owner) {
+		return (owner.getLastNameSearch() != null) ? owner.getLastNameSearch() : "";
+	}
+
+	/**
+	 * Encode this cursor as an opaque token.
+	 * @return a URL-safe token
+	 */
+	public String encode() {
+		String raw = (this.backward ? "b" : "f") + this.id + ":" + this.lastNameSearch;
+		return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decode a token produced by {@link #encode()}.
+	 * @param token the token
+	 * @return the cursor
+	 * @throws IllegalArgumentException if the token is malformed
+	 */
+	public static OwnerCursor decode(String token) {
+		String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+		int separator = raw.indexOf(':');
+		if (raw.length() < 3 || separator < 2 || (raw.charAt(0) != 'f' && raw.charAt(0) != 'b')) {
+			throw new IllegalArgumentException("Malformed owner cursor");
+		}
+		int id = Integer.parseInt(raw.substring(1, separator));
+		return new OwnerCursor(raw.substring(separator + 1), id, raw.charAt(0) == 'b');
+	}
+
+}
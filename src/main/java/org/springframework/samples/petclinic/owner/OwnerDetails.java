@@ -0,0 +1,33 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+
+/**
+ * An {@link OwnerSummary} together with the owner's pets, as served by {@code GET
+ * /api/v1/owners/{ownerId}}.
+ */
+public record OwnerDetails(Integer id, String firstName, String lastName, String address, String city, String telephone,
+		List<PetSummary> pets) {
+
+	static OwnerDetails of(OwnerSummary owner, List<PetSummary> pets) {
+		return new OwnerDetails(owner.id(), owner.firstName(), owner.lastName(), owner.address(), owner.city(),
+				owner.telephone(), pets);
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how much of the {@link Owner} aggregate a handler method (or every handler of
+ * a controller) works with. {@link OwnerResolver} reads it to load the owner once per
+ * request with the right fetch profile; handlers without it get the owner only.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@interface OwnerFetch {
+
+	Profile value();
+
+	/**
+	 * The parts of the aggregate loaded together with the owner.
+	 */
+	enum Profile {
+
+		/**
+		 * The owner row only; pets stay unloaded.
+		 */
+		OWNER,
+
+		/**
+		 * The owner with its pets and their types.
+		 */
+		PETS,
+
+		/**
+		 * The owner with its pets, their types and their visits.
+		 */
+		PETS_AND_VISITS
+
+	}
+
+}
@@ -15,13 +15,33 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository class for <code>Owner</code> domain objects. All method names are compliant
@@ -35,7 +55,7 @@ import org.springframework.data.repository.query.Param;
  * @author Michael Isvy
  * @author Wick Dynex
  */
-public interface OwnerRepository extends JpaRepository<Owner, Integer> {
+public interface OwnerRepository extends JpaRepository<Owner, Integer>, JpaSpecificationExecutor<Owner> {
 
 	/**
 	 * Retrieve {@link Owner}s from the data store by last name, returning all owners
@@ -46,6 +66,21 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 */
 	Page<Owner> findByLastNameStartingWith(String lastName, Pageable pageable);
 
+	/**
+	 * Stream the CSV columns of every {@link Owner} whose last name <i>starts</i> with
+	 * the given name, ordered by id. Rows are fetched from the database in batches as the
+	 * stream is consumed; the caller must consume it inside a transaction and close it.
+	 * MySQL only fetches in batches with {@code useCursorFetch=true} on the JDBC URL, as
+	 * set by the {@code mysql} profile; without it the driver reads the whole result.
+	 * @param lastName Value to search for
+	 * @return a {@link Stream} of {@link OwnerCsvRow}s
+	 */
+	@Query("SELECT new org.springframework.samples.petclinic.owner.OwnerCsvRow("
+			+ "o.id, o.firstName, o.lastName, o.address, o.city, o.telephone) "
+			+ "FROM Owner o WHERE o.lastName LIKE CONCAT(:lastName, '%') ORDER BY o.id")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	Stream<OwnerCsvRow> streamCsvRowsByLastNameStartingWith(@Param("lastName") String lastName);
+
 	/**
 	 * Retrieve an {@link Owner} from the data store by id.
 	 * <p>
@@ -61,6 +96,39 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 */
 	Optional<Owner> findById(Integer id);
 
+	/**
+	 * Retrieve an {@link Owner} by id together with its pets and their types, for views
+	 * and forms that work with the pets but not their visit history.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found
+	 */
+	@EntityGraph(Owner.WITH_PETS)
+	Optional<Owner> findWithPetsById(Integer id);
+
+	/**
+	 * Retrieve an {@link Owner} by id together with its pets, their types and their
+	 * visits. The visits of all pets are loaded by one subselect rather than joined into
+	 * the owner query, which would repeat each pet once per visit.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found
+	 */
+	@Transactional(readOnly = true)
+	default Optional<Owner> findWithPetsAndVisitsById(Integer id) {
+		Optional<Owner> owner = findWithPetsById(id);
+		owner.ifPresent(o -> o.getPets().forEach(pet -> Hibernate.initialize(pet.getVisits())));
+		return owner;
+	}
+
+	/**
+	 * Retrieve the {@link Owner}s with the given ids together with their pets and pet
+	 * types. Used to complete a page of search results in one extra query: fetching the
+	 * collection in the paged query itself would force Hibernate to paginate in memory.
+	 * @param ids the ids to load
+	 * @return the matching {@link Owner}s, in no particular order
+	 */
+	@EntityGraph(Owner.WITH_PETS)
+	List<Owner> findWithPetsByIdIn(Collection<Integer> ids);
+
 	/**
 	 * Check whether an {@link Owner} with the given first name, last name, and telephone
 	 * already exists in the data store (case-insensitive name comparison).
@@ -77,17 +145,176 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 * Retrieve {@link Owner}s from the data store matching any combination of last name
 	 * (case-insensitive prefix), telephone (exact), and city (case-insensitive prefix). A
 	 * {@code null} parameter means "no filter applied" for that field.
+	 * <p>
+	 * Only the filters that are actually supplied end up in the generated SQL, and the
+	 * prefixes are matched as ranges over the indexed {@code last_name_search} and
+	 * {@code city_search} columns, so the database can answer the query with an index
+	 * range scan instead of evaluating {@code LOWER(...)} on every row.
+	 * </p>
 	 * @param lastName case-insensitive prefix to match, or {@code null} to skip
 	 * @param telephone exact telephone to match, or {@code null} to skip
 	 * @param city case-insensitive prefix to match, or {@code null} to skip
 	 * @param pageable pagination settings
 	 * @return a {@link Page} of matching {@link Owner}s
 	 */
-	@Query("SELECT o FROM Owner o WHERE "
-			+ "(:lastName IS NULL OR LOWER(o.lastName) LIKE LOWER(CONCAT(:lastName, '%'))) AND "
-			+ "(:telephone IS NULL OR o.telephone = :telephone) AND "
-			+ "(:city IS NULL OR LOWER(o.city) LIKE LOWER(CONCAT(:city, '%')))")
-	Page<Owner> findByFilters(@Param("lastName") String lastName, @Param("telephone") String telephone,
-			@Param("city") String city, Pageable pageable);
+	default Page<Owner> findByFilters(String lastName, String telephone, String city, Pageable pageable) {
+		Page<Owner> page = findAll(OwnerSpecifications.matchingFilters(lastName, telephone, city), pageable);
+		return new PageImpl<>(withPets(this, page.getContent()), page.getPageable(), page.getTotalElements());
+	}
+
+	/**
+	 * Check whether the {@link Owner} with the given id matches the filters of
+	 * {@link #findByFilters(String, String, String, Pageable)}. Used to scope the search
+	 * of a user who may only see one owner: the id predicate makes it a primary-key
+	 * lookup instead of a search across all owners.
+	 * @param id the id of the only owner the caller may see
+	 * @param lastName case-insensitive prefix to match, or {@code null} to skip
+	 * @param telephone exact telephone to match, or {@code null} to skip
+	 * @param city case-insensitive prefix to match, or {@code null} to skip
+	 * @return {@code true} if that owner matches every supplied filter
+	 */
+	default boolean matchesFilters(Integer id, String lastName, String telephone, String city) {
+		return exists(
+				OwnerSpecifications.withId(id).and(OwnerSpecifications.matchingFilters(lastName, telephone, city)));
+	}
+
+	/**
+	 * Retrieve one keyset page of {@link Owner}s matching the same filters as
+	 * {@link #findByFilters(String, String, String, Pageable)}, ordered by
+	 * {@code (lastNameSearch, id)}.
+	 * <p>
+	 * Unlike the offset variant this never issues a {@code count(*)} query and its cost
+	 * does not grow with the page number: the database seeks straight to the cursor using
+	 * the {@code (last_name_search, id)} index and reads one row more than requested to
+	 * find out whether another page follows.
+	 * </p>
+	 * @param lastName case-insensitive prefix to match, or {@code null} to skip
+	 * @param telephone exact telephone to match, or {@code null} to skip
+	 * @param city case-insensitive prefix to match, or {@code null} to skip
+	 * @param cursor the row to continue from, or {@code null} for the first page
+	 * @param size the page size
+	 * @return a {@link Slice} in ascending order; {@link Slice#hasNext()} reports whether
+	 * more rows exist in the cursor's reading direction
+	 */
+	default Slice<Owner> findByFilters(String lastName, String telephone, String city, OwnerCursor cursor, int size) {
+		boolean backward = cursor != null && cursor.backward();
+		Sort sort = Sort.by(backward ? Sort.Direction.DESC : Sort.Direction.ASC, "lastNameSearch", "id");
+		List<Owner> rows = findBy(OwnerSpecifications.matchingFilters(lastName, telephone, city, cursor),
+				query -> query.sortBy(sort).limit(size + 1).all());
+		boolean more = rows.size() > size;
+		List<Owner> content = new ArrayList<>(more ? rows.subList(0, size) : rows);
+		if (backward) {
+			Collections.reverse(content);
+		}
+		return new SliceImpl<>(withPets(this, content), Pageable.ofSize(size), more);
+	}
+
+	/**
+	 * Return one page of {@link OwnerSummary} projections of the owners whose last name
+	 * starts with the given prefix, ignoring case, in {@code (last_name_search, id)}
+	 * order. Only the owner columns are read, so the page costs one query however many
+	 * pets and visits the owners have. The prefix is matched as a range over the indexed
+	 * {@code last_name_search} column (see {@link OwnerSpecifications}).
+	 * @param lastName the last name prefix, or an empty string for all owners
+	 * @param pageable the page to return; its sort is ignored
+	 * @return the owners on the page
+	 */
+	default Slice<OwnerSummary> findSummariesByLastNameStartingWith(String lastName, Pageable pageable) {
+		if (lastName.isEmpty()) {
+			return findSummariesBy(pageable);
+		}
+		String from = lastName.toLowerCase(Locale.ROOT);
+		String to = OwnerSpecifications.successor(from);
+		return (to != null) ? findSummariesByLastNameRange(from, to, pageable) : new SliceImpl<>(List.of());
+	}
+
+	@Query("""
+			SELECT new org.springframework.samples.petclinic.owner.OwnerSummary(
+			    o.id, o.firstName, o.lastName, o.address, o.city, o.telephone)
+			FROM Owner o
+			WHERE o.lastNameSearch >= :from AND o.lastNameSearch < :to
+			ORDER BY o.lastNameSearch ASC, o.id ASC
+			""")
+	Slice<OwnerSummary> findSummariesByLastNameRange(@Param("from") String from, @Param("to") String to,
+			Pageable pageable);
+
+	@Query("""
+			SELECT new org.springframework.samples.petclinic.owner.OwnerSummary(
+			    o.id, o.firstName, o.lastName, o.address, o.city, o.telephone)
+			FROM Owner o
+			ORDER BY o.lastNameSearch ASC, o.id ASC
+			""")
+	Slice<OwnerSummary> findSummariesBy(Pageable pageable);
+
+	/**
+	 * Retrieve the {@link OwnerSummary} projection of an {@link Owner} by id.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the projection if the owner exists
+	 */
+	@Query("""
+			SELECT new org.springframework.samples.petclinic.owner.OwnerSummary(
+			    o.id, o.firstName, o.lastName, o.address, o.city, o.telephone)
+			FROM Owner o
+			WHERE o.id = :id
+			""")
+	Optional<OwnerSummary> findSummaryById(@Param("id") Integer id);
+
+	/**
+	 * Retrieve the {@link PetSummary} projections of the pets of an {@link Owner}, sorted
+	 * by name. Returns an empty list both for an owner without pets and for an unknown
+	 * owner.
+	 * @param ownerId the id of the owner
+	 * @return the owner's pets
+	 */
+	@Query("""
+			SELECT new org.springframework.samples.petclinic.owner.PetSummary(p.id, p.name, p.birthDate, t.name)
+			FROM Owner o JOIN o.pets p LEFT JOIN p.type t
+			WHERE o.id = :ownerId
+			ORDER BY p.name ASC, p.id ASC
+			""")
+	List<PetSummary> findPetSummariesByOwnerId(@Param("ownerId") Integer ownerId);
+
+	/**
+	 * Read the {@link OwnerVersion} of an {@link Owner}: its row version together with
+	 * the counts, highest ids and version sums of its pets and their visits. One
+	 * aggregate query over the owner's rows, used to revalidate the owner details page
+	 * without loading it.
+	 * @param id the id of the owner
+	 * @return an {@link Optional} containing the version if the owner exists
+	 */
+	@Query("""
+			SELECT new org.springframework.samples.petclinic.owner.OwnerVersion(
+			    o.version, COUNT(DISTINCT p.id), MAX(p.id), SUM(p.version), COUNT(v.id), MAX(v.id), SUM(v.version))
+			FROM Owner o LEFT JOIN o.pets p LEFT JOIN p.visits v
+			WHERE o.id = :id
+			GROUP BY o.id, o.version
+			""")
+	Optional<OwnerVersion> findVersionById(@Param("id") Integer id);
+
+	/**
+	 * Check whether the pet with the given id belongs to the given {@link Owner}.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @return {@code true} if the owner has that pet
+	 */
+	@Query("SELECT COUNT(p) > 0 FROM Owner o JOIN o.pets p WHERE o.id = :ownerId AND p.id = :petId")
+	boolean existsPet(@Param("ownerId") Integer ownerId, @Param("petId") Integer petId);
+
+	/**
+	 * Replace a page of owners with copies whose pets are loaded, keeping the order.
+	 * @param repository the repository to load the pets through
+	 * @param owners owners loaded without their pets
+	 * @return the same owners, in the same order, with pets and pet types initialized
+	 */
+	private static List<Owner> withPets(OwnerRepository repository, List<Owner> owners) {
+		if (owners.isEmpty()) {
+			return owners;
+		}
+		Map<Integer, Owner> loaded = new HashMap<>();
+		for (Owner owner : repository.findWithPetsByIdIn(owners.stream().map(Owner::getId).toList())) {
+			loaded.put(owner.getId(), owner);
+		}
+		return owners.stream().map(owner -> loaded.getOrDefault(owner.getId(), owner)).toList();
+	}
 
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.samples.petclinic.owner.OwnerFetch.Profile;
+import org.springframework.samples.petclinic.system.ResourceNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Request-scoped identity cache for {@link Owner} aggregates. The model attribute methods
+ * and handlers of the owner, pet and visit controllers all resolve the owner through it,
+ * so a request loads the aggregate at most once however many of them need it.
+ * <p>
+ * The fetch profile is taken from the {@link OwnerFetch} annotation of the handler that
+ * serves the request, because model attribute methods run before the handler and could
+ * otherwise load less than the handler needs.
+ * </p>
+ */
+@Component
+@RequestScope
+class OwnerResolver {
+
+	private final OwnerRepository owners;
+
+	private final Map<Integer, Owner> resolved = new HashMap<>();
+
+	OwnerResolver(OwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	/**
+	 * Return the owner with the given id, loading it on first use in this request.
+	 * @param ownerId the id of the owner
+	 * @return the owner, with the associations the current handler declared
+	 * @throws ResourceNotFoundException if there is no such owner
+	 */
+	Owner resolve(int ownerId) {
+		return this.resolved.computeIfAbsent(ownerId,
+				id -> load(id, currentProfile()).orElseThrow(() -> new ResourceNotFoundException(
+						"Owner not found with id: " + id + ". Please ensure the ID is correct.")));
+	}
+
+	private Optional<Owner> load(int ownerId, Profile profile) {
+		return switch (profile) {
+			case OWNER -> this.owners.findById(ownerId);
+			case PETS -> this.owners.findWithPetsById(ownerId);
+			case PETS_AND_VISITS -> this.owners.findWithPetsAndVisitsById(ownerId);
+		};
+	}
+
+	private static Profile currentProfile() {
+		RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+		if (attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+				RequestAttributes.SCOPE_REQUEST) instanceof HandlerMethod handler) {
+			OwnerFetch fetch = handler.getMethodAnnotation(OwnerFetch.class);
+			if (fetch == null) {
+				fetch = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), OwnerFetch.class);
+			}
+			if (fetch != null) {
+				return fetch.value();
+			}
+		}
+		return Profile.OWNER;
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * {@link Specification}s backing the owner search.
+ * <p>
+ * Case-insensitive prefix filters are expressed as half-open ranges
+ * ({@code prefix <= column < successor(prefix)}) over the database-maintained,
+ * lower-cased {@code *_search} columns. Unlike {@code LOWER(column) LIKE ?}, a range over
+ * a plain column is something every supported database can answer from a B-tree index,
+ * even when the prefix is a bind parameter.
+ * </p>
+ */
+final class OwnerSpecifications {
+
+	private OwnerSpecifications() {
+	}
+
+	/**
+	 * Build a specification for the owner search form. A {@code null} or empty argument
+	 * adds no predicate for that field.
+	 * @param lastName case-insensitive last name prefix
+	 * @param telephone exact telephone number
+	 * @param city case-insensitive city prefix
+	 * @return the combined specification
+	 */
+	static Specification<Owner> matchingFilters(String lastName, String telephone, String city) {
+		return matchingFilters(lastName, telephone, city, null);
+	}
+
+	/**
+	 * Build a specification for one keyset page of the owner search: the search filters
+	 * plus a seek predicate on {@code (lastNameSearch, id)} relative to the cursor.
+	 * @param lastName case-insensitive last name prefix
+	 * @param telephone exact telephone number
+	 * @param city case-insensitive city prefix
+	 * @param cursor the row to continue from, or {@code null} for the first page
+	 * @return the combined specification
+	 */
+	static Specification<Owner> matchingFilters(String lastName, String telephone, String city, OwnerCursor cursor) {
+		return (root, query, cb) -> {
+			List<Predicate> predicates = new ArrayList<>();
+			addPrefix(predicates, cb, root.get("lastNameSearch"), lastName);
+			if (telephone != null) {
+				predicates.add(cb.equal(root.get("telephone"), telephone));
+			}
+			addPrefix(predicates, cb, root.get("citySearch"), city);
+			if (cursor != null) {
+				addSeek(predicates, cb, root.get("lastNameSearch"), root.get("id"), cursor);
+			}
+			return cb.and(predicates.toArray(new Predicate[0]));
+		};
+	}
+
+	/**
+	 * Build a specification matching the owner with the given id only.
+	 * @param id the owner id
+	 * @return the specification
+	 */
+	static Specification<Owner> withId(Integer id) {
+		return (root, query, cb) -> cb.equal(root.get("id"), id);
+	}
+
+	private static void addPrefix(List<Predicate> predicates, CriteriaBuilder cb, Path<String> column, String prefix) {
+		if (prefix == null || prefix.isEmpty()) {
+			return;
+		}
+		String lower = prefix.toLowerCase(Locale.ROOT);
+		String upper = successor(lower);
+		if (upper == null) {
+			predicates.add(cb.like(column, lower + "%"));
+			return;
+		}
+		predicates.add(cb.greaterThanOrEqualTo(column, lower));
+		predicates.add(cb.lessThan(column, upper));
+	}
+
+	/**
+	 * Return the smallest string greater than every string starting with the given
+	 * prefix, for use as the exclusive upper bound of a prefix range.
+	 * @param prefix a non-empty prefix
+	 * @return the successor, or {@code null} if the last character cannot be incremented
+	 */
+	static String successor(String prefix) {
+		char last = prefix.charAt(prefix.length() - 1);
+		if (last == Character.MAX_VALUE) {
+			return null;
+		}
+		return prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+	}
+
+	/**
+	 * {@code (key, id) > (cursorKey, cursorId)} (or {@code <} when reading backwards),
+	 * spelled out so that it works on every database. The leading non-strict bound on the
+	 * key alone lets the optimizer start an index range scan at the cursor.
+	 */
+	private static void addSeek(List<Predicate> predicates, CriteriaBuilder cb, Path<String> key, Path<Integer> id,
+			OwnerCursor cursor) {
+		String cursorKey = cursor.lastNameSearch();
+		if (cursor.backward()) {
+			predicates.add(cb.lessThanOrEqualTo(key, cursorKey));
+			predicates.add(
+					cb.or(cb.lessThan(key, cursorKey), cb.and(cb.equal(key, cursorKey), cb.lessThan(id, cursor.id()))));
+		}
+		else {
+			predicates.add(cb.greaterThanOrEqualTo(key, cursorKey));
+			predicates.add(cb.or(cb.greaterThan(key, cursorKey),
+					cb.and(cb.equal(key, cursorKey), cb.greaterThan(id, cursor.id()))));
+		}
+	}
+
+}
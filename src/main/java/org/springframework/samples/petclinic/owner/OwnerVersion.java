@@ -0,0 +1,30 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+/**
+ * Version of everything the owner details page shows, read without loading the aggregate.
+ * <p>
+ * Row versions only grow, so an update anywhere raises one of the version sums, and
+ * generated ids only grow, so inserting a pet or visit raises the highest id or, together
+ * with the deletes, changes the count. Pet versions are summed once per visit of the pet,
+ * which still rises with every pet update as long as no visit was added or removed.
+ * </p>
+ */
+public record OwnerVersion(Number owner, Number pets, Number lastPetId, Number petVersions, Number visits,
+		Number lastVisitId, Number visitVersions) {
+}
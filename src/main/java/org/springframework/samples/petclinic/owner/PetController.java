@@ -18,8 +18,8 @@ package org.springframework.samples.petclinic.owner;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Objects;
-import java.util.Optional;
 
+import org.springframework.samples.petclinic.owner.OwnerFetch.Profile;
 import org.springframework.samples.petclinic.system.ResourceNotFoundException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
@@ -46,30 +46,31 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
  */
 @Controller
 @RequestMapping("/owners/{ownerId}")
+@OwnerFetch(Profile.PETS)
 class PetController {
 
 	private static final String VIEWS_PETS_CREATE_OR_UPDATE_FORM = "pets/createOrUpdatePetForm";
 
 	private final OwnerRepository owners;
 
-	private final PetTypeRepository types;
+	private final PetTypeRegistry types;
 
-	public PetController(OwnerRepository owners, PetTypeRepository types) {
+	private final OwnerResolver ownerResolver;
+
+	public PetController(OwnerRepository owners, PetTypeRegistry types, OwnerResolver ownerResolver) {
 		this.owners = owners;
 		this.types = types;
+		this.ownerResolver = ownerResolver;
 	}
 
 	@ModelAttribute("types")
 	public Collection<PetType> populatePetTypes() {
-		return this.types.findPetTypes();
+		return this.types.findAll();
 	}
 
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable("ownerId") int ownerId) {
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new ResourceNotFoundException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct"));
-		return owner;
+		return this.ownerResolver.resolve(ownerId);
 	}
 
 	@ModelAttribute("pet")
@@ -80,10 +81,7 @@ class PetController {
 			return new Pet();
 		}
 
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new ResourceNotFoundException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct"));
-		Pet pet = owner.getPet(petId);
+		Pet pet = this.ownerResolver.resolve(ownerId).getPet(petId);
 		if (pet == null) {
 			throw new ResourceNotFoundException("Pet not found with id: " + petId + " for owner with id: " + ownerId);
 		}
@@ -140,11 +138,14 @@ class PetController {
 
 		String petName = pet.getName();
 
-		// checking if the pet name already exists for the owner
+		// checking if another pet of the owner already has this name; the edited pet is
+		// the owner's own instance, so it already carries the submitted name
 		if (StringUtils.hasText(petName)) {
-			Pet existingPet = owner.getPet(petName, false);
-			if (existingPet != null && !Objects.equals(existingPet.getId(), pet.getId())) {
-				result.rejectValue("name", "duplicate", "already exists");
+			for (Pet otherPet : owner.getPets()) {
+				if (!Objects.equals(otherPet.getId(), pet.getId()) && petName.equalsIgnoreCase(otherPet.getName())) {
+					result.rejectValue("name", "duplicate", "already exists");
+					break;
+				}
 			}
 		}
 
@@ -162,7 +163,9 @@ class PetController {
 		return "redirect:/owners/{ownerId}";
 	}
 
+	// Visits are needed to decide whether the pet may be deleted
 	@PostMapping("/pets/{petId}/delete")
+	@OwnerFetch(Profile.PETS_AND_VISITS)
 	public String processDeleteForm(Owner owner, Pet pet, RedirectAttributes redirectAttributes) {
 		if (!pet.getVisits().isEmpty()) {
 			redirectAttributes.addFlashAttribute("error",
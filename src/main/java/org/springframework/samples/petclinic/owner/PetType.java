@@ -18,12 +18,14 @@ package org.springframework.samples.petclinic.owner;
 import org.springframework.samples.petclinic.model.NamedEntity;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
 
 /**
  * @author Juergen Hoeller Can be Cat, Dog, Hamster...
  */
 @Entity
+@EntityListeners(PetTypeChangeListener.class)
 @Table(name = "types")
 public class PetType extends NamedEntity {
 
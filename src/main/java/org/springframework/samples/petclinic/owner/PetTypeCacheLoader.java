@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import org.springframework.samples.petclinic.system.CacheValueLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reloads the {@link PetTypeRegistry} snapshot when the {@code petTypes} cache refreshes
+ * it ahead of expiry.
+ */
+@Component
+class PetTypeCacheLoader implements CacheValueLoader {
+
+	private final PetTypeRepository types;
+
+	PetTypeCacheLoader(PetTypeRepository types) {
+		this.types = types;
+	}
+
+	@Override
+	public String cacheName() {
+		return PetTypeRegistry.CACHE_NAME;
+	}
+
+	@Override
+	public Object load(Object key) {
+		return PetTypeRegistry.Snapshot.of(this.types.findPetTypes());
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that invalidates the {@link PetTypeRegistry} whenever a
+ * {@link PetType} is inserted, updated or deleted. Instantiated by Hibernate through
+ * Spring; the registry is looked up lazily because slices such as {@code @DataJpaTest} do
+ * not contain it.
+ */
+class PetTypeChangeListener {
+
+	private final ObjectProvider<PetTypeRegistry> registry;
+
+	PetTypeChangeListener(ObjectProvider<PetTypeRegistry> registry) {
+		this.registry = registry;
+	}
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	void petTypeChanged(PetType petType) {
+		this.registry.ifAvailable(PetTypeRegistry::invalidate);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Registry of the {@link PetType}s, looked up by name or id. Pet types change rarely but
+ * are read by every pet form bind and render, so they are loaded once into an immutable
+ * snapshot, held in the {@value #CACHE_NAME} cache, and reloaded after a change.
+ * <p>
+ * The snapshot holds detached entities; callers must not modify them.
+ * </p>
+ */
+@Component
+public class PetTypeRegistry {
+
+	static final String CACHE_NAME = "petTypes";
+
+	private final PetTypeRepository types;
+
+	private final Cache cache;
+
+	@Autowired
+	public PetTypeRegistry(PetTypeRepository types, CacheManager cacheManager) {
+		this(types, cacheManager.getCache(CACHE_NAME));
+	}
+
+	PetTypeRegistry(PetTypeRepository types, Cache cache) {
+		Assert.notNull(cache, () -> "No '" + CACHE_NAME + "' cache configured");
+		this.types = types;
+		this.cache = cache;
+	}
+
+	/**
+	 * Return all pet types, ordered by name.
+	 * @return an unmodifiable list of the pet types
+	 */
+	public List<PetType> findAll() {
+		return snapshot().all();
+	}
+
+	/**
+	 * Return the pet type with exactly the given name.
+	 * @param name the name of the pet type
+	 * @return the pet type, or empty if there is none with that name
+	 */
+	public Optional<PetType> findByName(String name) {
+		return Optional.ofNullable(snapshot().byName().get(name));
+	}
+
+	/**
+	 * Return the pet type with the given id.
+	 * @param id the id of the pet type
+	 * @return the pet type, or empty if there is none with that id
+	 */
+	public Optional<PetType> findById(Integer id) {
+		return Optional.ofNullable(snapshot().byId().get(id));
+	}
+
+	/**
+	 * Discard the snapshot so that the next lookup reloads the pet types. Inside a
+	 * transaction this happens after the commit, so the reload cannot see the old state.
+	 */
+	public void invalidate() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				@Override
+				public void afterCommit() {
+					PetTypeRegistry.this.cache.clear();
+				}
+
+			});
+		}
+		else {
+			this.cache.clear();
+		}
+	}
+
+	private Snapshot snapshot() {
+		return this.cache.get(SimpleKey.EMPTY, () -> Snapshot.of(this.types.findPetTypes()));
+	}
+
+	record Snapshot(List<PetType> all, Map<String, PetType> byName, Map<Integer, PetType> byId) {
+
+		static Snapshot of(List<PetType> types) {
+			Map<String, PetType> byName = new HashMap<>();
+			Map<Integer, PetType> byId = new HashMap<>();
+			for (PetType type : types) {
+				if (type.getName() != null) {
+					byName.putIfAbsent(type.getName(), type);
+				}
+				if (type.getId() != null) {
+					byId.put(type.getId(), type);
+				}
+			}
+			return new Snapshot(List.copyOf(types), Map.copyOf(byName), Map.copyOf(byId));
+		}
+
+	}
+
+}
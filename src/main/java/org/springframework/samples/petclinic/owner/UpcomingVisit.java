@@ -19,7 +19,9 @@ package org.springframework.samples.petclinic.owner;
 import java.time.LocalDate;
 
 /**
- * DTO carrying the flat data needed by the upcoming-visits view.
+ * DTO carrying the flat data needed by the upcoming-visits view. The visit id identifies
+ * a booking that is seen both by a query and by its {@link VisitBookedEvent}.
  */
-public record UpcomingVisit(Integer ownerId, String ownerName, String petName, LocalDate date, String description) {
+public record UpcomingVisit(Integer visitId, Integer ownerId, String ownerName, String petName, LocalDate date,
+		String description) {
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Fans the visits booked on this instance out to every open upcoming-visits page, so the
+ * pages follow one change feed instead of each polling the database.
+ * <p>
+ * Each booking gets a sequence number. The last {@value #REPLAY} bookings are kept, so a
+ * client that reconnects with the last number it saw receives what it missed; a client
+ * that fell further behind, or reads slower than {@value #CLIENT_BUFFER} bookings can
+ * pile up, gets a {@link Update#reset() reset} and should reload the list.
+ * </p>
+ */
+@Component
+class UpcomingVisitsBroadcaster {
+
+	static final int REPLAY = 256;
+
+	static final int CLIENT_BUFFER = 64;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final Sinks.Many<Update> updates = Sinks.many().replay().limit(REPLAY);
+
+	UpcomingVisitsBroadcaster(MeterRegistry meterRegistry) {
+		Gauge.builder("petclinic.visits.live.subscribers", this.updates, Sinks.Many::currentSubscriberCount)
+			.description("Open live upcoming-visits streams")
+			.register(meterRegistry);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	synchronized void onVisitBooked(VisitBookedEvent event) {
+		// synchronized: a sink accepts one emission at a time, in sequence order
+		this.updates.tryEmitNext(new Update(this.sequence.incrementAndGet(), event.visit()));
+	}
+
+	/**
+	 * Return the sequence number of the last booking. Read it before rendering a list of
+	 * upcoming visits and subscribe after it, so that no booking falls in between.
+	 * @return the sequence number
+	 */
+	long lastEventId() {
+		return this.sequence.get();
+	}
+
+	/**
+	 * Subscribe to the bookings made after the given sequence number.
+	 * @param after the sequence number of the last booking the client has
+	 * @param ownerId the owner whose visits to receive, or {@code null} for all visits
+	 * @return the updates; a reset update ends the stream
+	 */
+	Flux<Update> updates(long after, Integer ownerId) {
+		long current = this.sequence.get();
+		if (after < current - REPLAY || after > current) {
+			return Flux.just(Update.RESET);
+		}
+		return this.updates.asFlux()
+			.filter(update -> update.id() > after)
+			.filter(update -> ownerId == null || ownerId.equals(update.visit().ownerId()))
+			.onBackpressureBuffer(CLIENT_BUFFER)
+			.onErrorResume(ex -> Flux.just(Update.RESET));
+	}
+
+	/**
+	 * A booked visit and its sequence number, or a reset when {@code visit} is
+	 * {@code null}.
+	 */
+	record Update(long id, UpcomingVisit visit) {
+
+		static final Update RESET = new Update(0, null);
+
+		boolean reset() {
+			return this.visit == null;
+		}
+
+	}
+
+}
@@ -16,52 +16,123 @@
 
 package org.springframework.samples.petclinic.owner;
 
+import java.time.Duration;
 import java.time.LocalDate;
 
-import org.springframework.samples.petclinic.security.User;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.samples.petclinic.security.PetClinicUser;
 import org.springframework.samples.petclinic.security.UserRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import reactor.core.publisher.Flux;
 
 /**
- * Controller for the upcoming visits page at {@code /visits/upcoming}.
+ * Controller for the upcoming visits page at {@code /visits/upcoming}. The visits are
+ * shown {@value #PAGE_SIZE} at a time, so a long date range never loads every visit in
+ * it. The clinic-wide list is read from the {@link VisitCalendar}; an owner's own visits
+ * come from the database, through the owner's pets.
  */
 @Controller
 class UpcomingVisitsController {
 
+	private static final int PAGE_SIZE = 50;
+
+	private static final Duration HEARTBEAT = Duration.ofSeconds(20);
+
+	// browsers ignore events without data
+	private static final ServerSentEvent<Object> RESET = ServerSentEvent.builder((Object) "reload")
+		.event("reset")
+		.build();
+
 	private final VisitRepository visits;
 
+	private final VisitCalendar calendar;
+
+	private final UpcomingVisitsBroadcaster broadcaster;
+
 	private final UserRepository userRepository;
 
-	UpcomingVisitsController(VisitRepository visits, UserRepository userRepository) {
+	UpcomingVisitsController(VisitRepository visits, VisitCalendar calendar, UpcomingVisitsBroadcaster broadcaster,
+			UserRepository userRepository) {
 		this.visits = visits;
+		this.calendar = calendar;
+		this.broadcaster = broadcaster;
 		this.userRepository = userRepository;
 	}
 
 	@GetMapping("/visits/upcoming")
-	public String showUpcomingVisits(@RequestParam(defaultValue = "7") int days, Model model, Authentication auth) {
+	public String showUpcomingVisits(@RequestParam(defaultValue = "7") int days,
+			@RequestParam(defaultValue = "1") int page, Model model, Authentication auth) {
 		if (days < 1 || days > 365) {
 			model.addAttribute("errorMessage", "upcomingVisits.daysError");
 			return "visits/upcomingVisits";
 		}
 		LocalDate today = LocalDate.now();
 		LocalDate endDate = today.plusDays(days - 1);
+		// read before the list, so a booking made meanwhile is sent rather than lost
+		long lastEventId = this.broadcaster.lastEventId();
+		int currentPage = Math.max(page, 1);
+		Pageable pageable = PageRequest.of(currentPage - 1, PAGE_SIZE);
+		Slice<UpcomingVisit> upcomingVisits;
 		if (isOwnerRoleUser(auth)) {
-			User currentUser = userRepository.findByEmail(auth.getName())
-				.orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
-			model.addAttribute("upcomingVisits",
-					this.visits.findUpcomingVisitsByOwnerId(currentUser.getOwner().getId(), today, endDate));
+			PetClinicUser currentUser = currentUser(auth);
+			upcomingVisits = this.visits.findUpcomingVisitSliceByOwnerId(currentUser.getOwnerId(), today, endDate,
+					pageable);
 		}
 		else {
-			model.addAttribute("upcomingVisits", this.visits.findUpcomingVisits(today, endDate));
+			upcomingVisits = this.calendar.findUpcomingVisits(today, endDate, pageable);
 		}
+		model.addAttribute("upcomingVisits", upcomingVisits.getContent());
+		model.addAttribute("currentPage", currentPage);
+		model.addAttribute("hasNext", upcomingVisits.hasNext());
+		model.addAttribute("endDate", endDate);
+		model.addAttribute("lastEventId", lastEventId);
 		model.addAttribute("days", days);
 		return "visits/upcomingVisits";
 	}
 
+	/**
+	 * Stream the visits booked after {@code after} as Server-Sent Events named
+	 * {@code visit}, with the booking's sequence number as event id, so a reconnecting
+	 * browser resumes from its {@code Last-Event-ID}. A {@code reset} event asks the page
+	 * to reload its list. OWNER users only receive their own visits. As a streaming
+	 * response the feed has no async request timeout.
+	 */
+	@GetMapping(value = "/visits/upcoming/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@ResponseBody
+	public Flux<ServerSentEvent<Object>> streamUpcomingVisits(@RequestParam(defaultValue = "0") long after,
+			@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId, Authentication auth) {
+		Integer ownerId = isOwnerRoleUser(auth) ? currentUser(auth).getOwnerId() : null;
+		Flux<ServerSentEvent<Object>> updates = this.broadcaster
+			.updates((lastEventId != null) ? lastEventId : after, ownerId)
+			.map(update -> update.reset() ? RESET
+					: ServerSentEvent.builder((Object) update.visit())
+						.id(Long.toString(update.id()))
+						.event("visit")
+						.build());
+		// comments keep proxies from closing an idle stream; a client that is behind
+		// needs none
+		Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(HEARTBEAT)
+			.onBackpressureDrop()
+			.map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+		return Flux.merge(updates, heartbeats).takeUntil(event -> event == RESET);
+	}
+
+	private PetClinicUser currentUser(Authentication auth) {
+		return PetClinicUser.of(auth, this.userRepository)
+			.orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+	}
+
 	private boolean isOwnerRoleUser(Authentication auth) {
 		return auth != null && auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"));
 	}
@@ -23,6 +23,7 @@ import org.springframework.samples.petclinic.model.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 
 /**
@@ -42,6 +43,17 @@ public class Visit extends BaseEntity {
 	@NotBlank
 	private String description;
 
+	/**
+	 * The pet this visit belongs to. Normally written through {@link Pet#getVisits()};
+	 * mapped here as well so that a visit can be inserted on its own, without loading and
+	 * merging the pet's whole visit history.
+	 */
+	@Column(name = "pet_id", updatable = false)
+	private Integer petId;
+
+	@Version
+	private Integer version;
+
 	/**
 	 * Creates a new instance of Visit for the current date
 	 */
@@ -65,4 +77,12 @@ public class Visit extends BaseEntity {
 		this.description = description;
 	}
 
+	Integer getPetId() {
+		return this.petId;
+	}
+
+	void setPetId(Integer petId) {
+		this.petId = petId;
+	}
+
 }
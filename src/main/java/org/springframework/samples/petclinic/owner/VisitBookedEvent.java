@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+/**
+ * Published when a visit is booked, once the booking is committed, so that views of the
+ * upcoming visits can add it without querying for it.
+ *
+ * @param visit the booked visit, as listed among the upcoming visits
+ */
+public record VisitBookedEvent(UpcomingVisit visit) {
+
+	/**
+	 * Create the event for a visit booked for the given owner's pet.
+	 * @param owner the owner of the pet
+	 * @param pet the pet the visit is for
+	 * @param visit the booked visit, with its id assigned
+	 * @return the event
+	 */
+	public static VisitBookedEvent of(Owner owner, Pet pet, Visit visit) {
+		return new VisitBookedEvent(
+				new UpcomingVisit(visit.getId(), owner.getId(), owner.getFirstName() + " " + owner.getLastName(),
+						pet.getName(), visit.getDate(), visit.getDescription()));
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Books visits by inserting the {@link Visit} row directly, referencing the pet by id.
+ * Saving the owner instead would merge the owner's whole graph, every pet and every past
+ * visit, so the cost of a booking would grow with the clinic's history.
+ */
+@Service
+public class VisitBookingService {
+
+	private final VisitRepository visits;
+
+	VisitBookingService(VisitRepository visits) {
+		this.visits = visits;
+	}
+
+	/**
+	 * Book a new visit for a pet. The caller is responsible for checking that the pet
+	 * exists and may be booked by the current user.
+	 * @param petId the id of the pet the visit is for
+	 * @param visit the new visit
+	 * @return the saved visit, with its id assigned
+	 */
+	@Transactional
+	public Visit book(int petId, Visit visit) {
+		visit.setPetId(petId);
+		return this.visits.save(visit);
+	}
+
+}
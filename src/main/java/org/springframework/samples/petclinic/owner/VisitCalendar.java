@@ -0,0 +1,212 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Calendar of the clinic's upcoming visits, by day, for the next {@value #HORIZON_DAYS}
+ * days. The calendar is loaded with one date range query, held in the
+ * {@value #CACHE_NAME} cache under the day it was loaded, and kept up to date as visits
+ * are booked ({@link VisitBookedEvent}), so reading a page of it costs the size of the
+ * page rather than a query over all visits.
+ * <p>
+ * Changes the calendar cannot apply incrementally, such as a renamed owner or pet,
+ * discard it through {@link #invalidate()}. Bookings made by other instances show up when
+ * the cache entry expires.
+ * </p>
+ */
+@Component
+public class VisitCalendar {
+
+	static final String CACHE_NAME = "visitCalendar";
+
+	// today and a year ahead, leap day included
+	static final int HORIZON_DAYS = 367;
+
+	private final VisitRepository visits;
+
+	private final Cache cache;
+
+	private final AtomicLong version = new AtomicLong();
+
+	@Autowired
+	public VisitCalendar(VisitRepository visits, CacheManager cacheManager) {
+		this(visits, cacheManager.getCache(CACHE_NAME));
+	}
+
+	VisitCalendar(VisitRepository visits, Cache cache) {
+		Assert.notNull(cache, () -> "No '" + CACHE_NAME + "' cache configured");
+		this.visits = visits;
+		this.cache = cache;
+	}
+
+	/**
+	 * Return one page of the visits in the date range, earliest first and in booking
+	 * order within a day. Ranges reaching beyond the calendar are read from the database.
+	 * @param startDate the first day, inclusive
+	 * @param endDate the last day, inclusive
+	 * @param pageable the page to return; its sort is ignored
+	 * @return the visits on the page
+	 */
+	public Slice<UpcomingVisit> findUpcomingVisits(LocalDate startDate, LocalDate endDate, Pageable pageable) {
+		LocalDate today = LocalDate.now();
+		if (startDate.isBefore(today) || endDate.isAfter(today.plusDays(HORIZON_DAYS - 1))) {
+			return this.visits.findUpcomingVisitSlice(startDate, endDate, pageable);
+		}
+		if (endDate.isBefore(startDate)) {
+			return new SliceImpl<>(List.of(), pageable, false);
+		}
+		return page(days(today).subMap(startDate, true, endDate, true).values(), pageable);
+	}
+
+	/**
+	 * Add a newly booked visit once its booking has committed. Visits outside the
+	 * calendar's days, or already in it because it was loaded after the commit, are
+	 * ignored.
+	 * <p>
+	 * A calendar that is not in the cache may still be loading from a query that ran
+	 * before the commit, so it is evicted instead: the eviction waits for that load and
+	 * discards it, and the next read loads a calendar that includes the visit.
+	 * </p>
+	 * @param event the booking
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	void onVisitBooked(VisitBookedEvent event) {
+		UpcomingVisit visit = event.visit();
+		LocalDate today = LocalDate.now();
+		if (visit.date() == null || visit.date().isBefore(today)
+				|| !visit.date().isBefore(today.plusDays(HORIZON_DAYS))) {
+			return;
+		}
+		Days days = this.cache.get(today, Days.class);
+		if (days == null) {
+			this.cache.evict(today);
+			return;
+		}
+		AtomicBoolean added = new AtomicBoolean();
+		days.byDate().compute(visit.date(), (date, visits) -> {
+			if (visits != null && visits.stream().anyMatch(listed -> isSameVisit(listed, visit))) {
+				return visits;
+			}
+			List<UpcomingVisit> booked = (visits != null) ? new ArrayList<>(visits) : new ArrayList<>(1);
+			booked.add(visit);
+			added.set(true);
+			return List.copyOf(booked);
+		});
+		if (added.get()) {
+			this.version.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Return the version of the calendar, loading it if needed. The version changes
+	 * whenever the calendar is loaded or a booking is added to it, so any change it
+	 * shows, including a reload after its cache entry expired, gives a new version.
+	 * @return the current version
+	 */
+	public long version() {
+		days(LocalDate.now());
+		return this.version.get();
+	}
+
+	/**
+	 * Discard the calendar so that the next read reloads it. Inside a transaction this
+	 * happens after the commit, so the reload cannot see the old state.
+	 */
+	public void invalidate() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				@Override
+				public void afterCommit() {
+					VisitCalendar.this.cache.clear();
+				}
+
+			});
+		}
+		else {
+			this.cache.clear();
+		}
+	}
+
+	private NavigableMap<LocalDate, List<UpcomingVisit>> days(LocalDate today) {
+		return this.cache.get(today, () -> load(today)).byDate();
+	}
+
+	private Days load(LocalDate today) {
+		List<UpcomingVisit> upcoming = this.visits.findUpcomingVisits(today, today.plusDays(HORIZON_DAYS - 1));
+		TreeMap<LocalDate, List<UpcomingVisit>> byDate = new TreeMap<>();
+		for (UpcomingVisit visit : upcoming) {
+			byDate.computeIfAbsent(visit.date(), date -> new ArrayList<>()).add(visit);
+		}
+		byDate.replaceAll((date, visits) -> List.copyOf(visits));
+		this.version.incrementAndGet();
+		return new Days(new ConcurrentSkipListMap<>(byDate));
+	}
+
+	private static boolean isSameVisit(UpcomingVisit listed, UpcomingVisit booked) {
+		return booked.visitId() != null && booked.visitId().equals(listed.visitId());
+	}
+
+	private static Slice<UpcomingVisit> page(Collection<List<UpcomingVisit>> days, Pageable pageable) {
+		long skip = pageable.getOffset();
+		List<UpcomingVisit> content = new ArrayList<>(pageable.getPageSize());
+		for (List<UpcomingVisit> day : days) {
+			if (skip >= day.size()) {
+				skip -= day.size();
+				continue;
+			}
+			for (int i = (int) skip; i < day.size(); i++) {
+				if (content.size() == pageable.getPageSize()) {
+					return new SliceImpl<>(content, pageable, true);
+				}
+				content.add(day.get(i));
+			}
+			skip = 0;
+		}
+		return new SliceImpl<>(content, pageable, false);
+	}
+
+	/**
+	 * The visits of the calendar's days, by date. Each day's list is immutable and
+	 * replaced as a whole when a visit is added.
+	 */
+	record Days(ConcurrentSkipListMap<LocalDate, List<UpcomingVisit>> byDate) {
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate listener that invalidates the {@link VisitCalendar} when a change reaches
+ * what the calendar lists: an owner's name, a pet's name, a visit's date or description,
+ * or a deleted visit. Deleting an owner or a pet deletes their visits too. Other updates,
+ * such as an owner's telephone number, keep the calendar. New visits are added through
+ * {@link VisitBookedEvent}.
+ * <p>
+ * A Hibernate listener rather than a JPA entity listener, because only Hibernate tells
+ * which properties an update changed.
+ * </p>
+ */
+@Component
+class VisitCalendarChangeListener implements PostUpdateEventListener, PostDeleteEventListener {
+
+	private static final Map<Class<?>, Set<String>> LISTED_PROPERTIES = Map.of(Owner.class,
+			Set.of("firstName", "lastName"), Pet.class, Set.of("name"), Visit.class, Set.of("date", "description"));
+
+	private final VisitCalendar calendar;
+
+	VisitCalendarChangeListener(VisitCalendar calendar, EntityManagerFactory entityManagerFactory) {
+		this.calendar = calendar;
+		EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+			.getServiceRegistry()
+			.requireService(EventListenerRegistry.class);
+		listeners.appendListeners(EventType.POST_UPDATE, this);
+		listeners.appendListeners(EventType.POST_DELETE, this);
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		Set<String> listed = LISTED_PROPERTIES.get(event.getPersister().getMappedClass());
+		if (listed != null && anyChanged(listed, event)) {
+			this.calendar.invalidate();
+		}
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		if (event.getPersister().getMappedClass() == Visit.class) {
+			this.calendar.invalidate();
+		}
+	}
+
+	private static boolean anyChanged(Set<String> properties, PostUpdateEvent event) {
+		Object[] oldState = event.getOldState();
+		if (oldState == null) {
+			// no loaded state to compare with, so any property may have changed
+			return true;
+		}
+		EntityPersister persister = event.getPersister();
+		return properties.stream()
+			.mapToInt(persister::getPropertyIndex)
+			.anyMatch(index -> !Objects.equals(oldState[index], event.getState()[index]));
+	}
+
+}
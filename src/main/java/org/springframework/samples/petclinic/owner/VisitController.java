@@ -17,10 +17,12 @@ package org.springframework.samples.petclinic.owner;
 
 import java.time.LocalDate;
 import java.util.Map;
-import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.samples.petclinic.owner.OwnerFetch.Profile;
 import org.springframework.samples.petclinic.system.ResourceNotFoundException;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -41,12 +43,23 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
  * @author Wick Dynex
  */
 @Controller
+@OwnerFetch(Profile.PETS_AND_VISITS)
 class VisitController {
 
 	private final OwnerRepository owners;
 
-	public VisitController(OwnerRepository owners) {
+	private final OwnerResolver ownerResolver;
+
+	private final VisitBookingService visitBookings;
+
+	private final ApplicationEventPublisher events;
+
+	public VisitController(OwnerRepository owners, OwnerResolver ownerResolver, VisitBookingService visitBookings,
+			ApplicationEventPublisher events) {
 		this.owners = owners;
+		this.ownerResolver = ownerResolver;
+		this.visitBookings = visitBookings;
+		this.events = events;
 	}
 
 	@InitBinder
@@ -64,9 +77,7 @@ class VisitController {
 	@ModelAttribute("visit")
 	public Visit loadPetWithVisit(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
 			Map<String, Object> model) {
-		Optional<Owner> optionalOwner = owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new ResourceNotFoundException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
+		Owner owner = this.ownerResolver.resolve(ownerId);
 
 		Pet pet = owner.getPet(petId);
 		if (pet == null) {
@@ -75,10 +86,7 @@ class VisitController {
 		}
 		model.put("pet", pet);
 		model.put("owner", owner);
-
-		Visit visit = new Visit();
-		pet.addVisit(visit);
-		return visit;
+		return new Visit();
 	}
 
 	// Spring MVC calls method loadPetWithVisit(...) before initNewVisitForm is
@@ -89,20 +97,25 @@ class VisitController {
 	}
 
 	// Spring MVC calls method loadPetWithVisit(...) before processNewVisitForm is
-	// called
+	// called. Booking only needs to know that the pet belongs to the owner, so the past
+	// visits are loaded only when the form has to be shown again.
 	@PostMapping("/owners/{ownerId}/pets/{petId}/visits/new")
+	@OwnerFetch(Profile.PETS)
 	public String processNewVisitForm(@ModelAttribute Owner owner, @PathVariable int petId, @Valid Visit visit,
-			BindingResult result, RedirectAttributes redirectAttributes) {
+			BindingResult result, Model model, RedirectAttributes redirectAttributes) {
 		if (visit.getDate() != null && visit.getDate().isBefore(LocalDate.now())) {
 			result.rejectValue("date", "visitDate.pastNotAllowed");
 		}
 
 		if (result.hasErrors()) {
+			this.owners.findWithPetsAndVisitsById(owner.getId())
+				.map(withVisits -> withVisits.getPet(petId))
+				.ifPresent(pet -> model.addAttribute("pet", pet));
 			return "pets/createOrUpdateVisitForm";
 		}
 
-		owner.addVisit(petId, visit);
-		this.owners.save(owner);
+		this.visitBookings.book(petId, visit);
+		this.events.publishEvent(VisitBookedEvent.of(owner, owner.getPet(petId), visit));
 		redirectAttributes.addFlashAttribute("message", "Your visit has been booked");
 		return "redirect:/owners/{ownerId}";
 	}
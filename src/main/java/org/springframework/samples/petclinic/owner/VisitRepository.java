@@ -18,18 +18,30 @@ package org.springframework.samples.petclinic.owner;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 /**
  * Repository for querying {@link Visit} entities by date range.
+ * <p>
+ * Upcoming visits are listed in {@code (date, id)} order, which is the order of the
+ * {@code visits_visit_date} index: a page of the list is read as a range scan of the
+ * index that stops once the page is full.
  */
 public interface VisitRepository extends JpaRepository<Visit, Integer> {
 
-	@Query("""
+	/**
+	 * The {@link UpcomingVisit} projection of the visits in a date range, completed by
+	 * each query with its own conditions and {@link #UPCOMING_VISITS_ORDER}.
+	 */
+	String UPCOMING_VISITS = """
 			SELECT new org.springframework.samples.petclinic.owner.UpcomingVisit(
+			    v.id,
 			    o.id,
 			    CONCAT(o.firstName, ' ', o.lastName),
 			    p.name,
@@ -37,24 +49,80 @@ public interface VisitRepository extends JpaRepository<Visit, Integer> {
 			    v.description)
 			FROM Owner o JOIN o.pets p JOIN p.visits v
 			WHERE v.date >= :startDate AND v.date <= :endDate
-			ORDER BY v.date ASC
-			""")
+			""";
+
+	String UPCOMING_VISITS_ORDER = """
+			ORDER BY v.date ASC, v.id ASC
+			""";
+
+	@Query(UPCOMING_VISITS + UPCOMING_VISITS_ORDER)
 	List<UpcomingVisit> findUpcomingVisits(@Param("startDate") LocalDate startDate,
 			@Param("endDate") LocalDate endDate);
 
+	/**
+	 * Return one page of the visits in the date range, earliest first. The slice reads
+	 * one row more than the page to know whether there is a next page, instead of
+	 * counting.
+	 * @param startDate the first day, inclusive
+	 * @param endDate the last day, inclusive
+	 * @param pageable the page to return; its sort is ignored
+	 * @return the visits on the page
+	 */
+	@Query(UPCOMING_VISITS + UPCOMING_VISITS_ORDER)
+	Slice<UpcomingVisit> findUpcomingVisitSlice(@Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate, Pageable pageable);
+
+	/**
+	 * Return one page of the given owner's visits in the date range, earliest first.
+	 * @param ownerId the owner
+	 * @param startDate the first day, inclusive
+	 * @param endDate the last day, inclusive
+	 * @param pageable the page to return; its sort is ignored
+	 * @return the visits on the page
+	 */
+	@Query(UPCOMING_VISITS + "AND o.id = :ownerId\n" + UPCOMING_VISITS_ORDER)
+	Slice<UpcomingVisit> findUpcomingVisitSliceByOwnerId(@Param("ownerId") int ownerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+
+	/**
+	 * Return one page of the visits in the date range of owners whose full name contains
+	 * the given text, ignoring case, earliest first. The date index is read in order and
+	 * the scan stops once the page is full.
+	 * @param namePart the text to look for in the owner's first and last name
+	 * @param startDate the first day, inclusive
+	 * @param endDate the last day, inclusive
+	 * @param pageable the page to return; its sort is ignored
+	 * @return the visits on the page
+	 */
+	default List<UpcomingVisit> findUpcomingVisitsByOwnerName(String namePart, LocalDate startDate, LocalDate endDate,
+			Pageable pageable) {
+		// '!' rather than the usual backslash, which MySQL also reads as a string escape
+		String escaped = namePart.toLowerCase(Locale.ROOT).replaceAll("[!%_]", "!$0");
+		return findUpcomingVisitsByOwnerNameLike("%" + escaped + "%", startDate, endDate, pageable);
+	}
+
+	@Query(UPCOMING_VISITS + "AND LOWER(CONCAT(o.firstName, ' ', o.lastName)) LIKE :pattern ESCAPE '!'\n"
+			+ UPCOMING_VISITS_ORDER)
+	List<UpcomingVisit> findUpcomingVisitsByOwnerNameLike(@Param("pattern") String pattern,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+
+	@Query(UPCOMING_VISITS + "AND o.id = :ownerId\n" + UPCOMING_VISITS_ORDER)
+	List<UpcomingVisit> findUpcomingVisitsByOwnerId(@Param("ownerId") int ownerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	/**
+	 * Return the {@link VisitSummary} projections of the visits of one pet of the given
+	 * owner, earliest first. Returns an empty list if the owner has no such pet.
+	 * @param ownerId the owner
+	 * @param petId the pet
+	 * @return the pet's visits
+	 */
 	@Query("""
-			SELECT new org.springframework.samples.petclinic.owner.UpcomingVisit(
-			    o.id,
-			    CONCAT(o.firstName, ' ', o.lastName),
-			    p.name,
-			    v.date,
-			    v.description)
+			SELECT new org.springframework.samples.petclinic.owner.VisitSummary(v.id, v.date, v.description)
 			FROM Owner o JOIN o.pets p JOIN p.visits v
-			WHERE v.date >= :startDate AND v.date <= :endDate
-			AND o.id = :ownerId
-			ORDER BY v.date ASC
+			WHERE o.id = :ownerId AND p.id = :petId
+			ORDER BY v.date ASC, v.id ASC
 			""")
-	List<UpcomingVisit> findUpcomingVisitsByOwnerId(@Param("ownerId") int ownerId,
-			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+	List<VisitSummary> findSummariesByOwnerIdAndPetId(@Param("ownerId") int ownerId, @Param("petId") int petId);
 
 }
@@ -67,12 +67,16 @@ class AdminUserController {
 		List<User> users = userRepository.findAll();
 		model.addAttribute("users", users);
 		model.addAttribute("currentUserEmail", auth.getName());
-		User currentUser = userRepository.findByEmail(auth.getName())
-			.orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+		PetClinicUser currentUser = currentUser(auth);
 		model.addAttribute("currentUserId", currentUser.getId());
 		return "admin/userList";
 	}
 
+	private PetClinicUser currentUser(Authentication auth) {
+		return PetClinicUser.of(auth, userRepository)
+			.orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+	}
+
 	// ============================================================
 	// Create New Admin User
 	// ============================================================
@@ -110,8 +114,7 @@ class AdminUserController {
 
 	@GetMapping("/{id}/edit")
 	public String showEditForm(@PathVariable int id, Model model, Authentication auth) {
-		User currentUser = userRepository.findByEmail(auth.getName())
-			.orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+		PetClinicUser currentUser = currentUser(auth);
 		if (currentUser.getId() == id) {
 			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You cannot edit your own account.");
 		}
@@ -137,8 +140,7 @@ class AdminUserController {
 	@PostMapping("/{id}/edit")
 	public String processEditForm(@Valid UserEditForm form, BindingResult result, @PathVariable int id, Model model,
 			Authentication auth, RedirectAttributes redirectAttributes) {
-		User currentUser = userRepository.findByEmail(auth.getName())
-			.orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+		PetClinicUser currentUser = currentUser(auth);
 		if (currentUser.getId() == id) {
 			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You cannot edit your own account.");
 		}
@@ -230,8 +232,7 @@ class AdminUserController {
 	@PostMapping("/{id}/delete")
 	public String deleteUser(@PathVariable int id, @RequestParam(defaultValue = "false") boolean cascadeOwner,
 			Authentication auth, RedirectAttributes redirectAttributes) {
-		User currentUser = userRepository.findByEmail(auth.getName())
-			.orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+		PetClinicUser currentUser = currentUser(auth);
 		if (currentUser.getId() == id) {
 			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You cannot delete your own account.");
 		}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.security;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} that bounds how many {@link #matches} calls hash at once.
+ * Password hashes are deliberately slow to compute, so a burst of logins could otherwise
+ * keep every request thread busy hashing and starve all other requests. A login waits at
+ * most a short time for one of the permits and otherwise fails at once with an
+ * {@link AuthenticationServiceException}, so a burst is shed instead of holding request
+ * threads while it drains.
+ * <p>
+ * {@link #encode} and {@link #upgradeEncoding} are not bounded: they are used by
+ * registration and user management, not by every login.
+ * </p>
+ */
+public final class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private final PasswordEncoder delegate;
+
+	private final Semaphore permits;
+
+	private final Duration acquireTimeout;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int permits, Duration acquireTimeout) {
+		this.delegate = delegate;
+		this.permits = new Semaphore(permits, true);
+		this.acquireTimeout = acquireTimeout;
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return this.delegate.encode(rawPassword);
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		try {
+			if (!this.permits.tryAcquire(this.acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				throw new AuthenticationServiceException("Too many concurrent logins, please try again");
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new AuthenticationServiceException("Interrupted while waiting to verify the password", ex);
+		}
+		try {
+			return this.delegate.matches(rawPassword, encodedPassword);
+		}
+		finally {
+			this.permits.release();
+		}
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return this.delegate.upgradeEncoding(encodedPassword);
+	}
+
+}
@@ -38,14 +38,13 @@ public class OwnerAuthenticationSuccessHandler implements AuthenticationSuccessH
 	@Override
 	public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
 			Authentication authentication) throws IOException, ServletException {
-		String email = authentication.getName();
-		User user = userRepository.findByEmail(email)
-			.orElseThrow(() -> new IllegalStateException("Authenticated user not found: " + email));
+		PetClinicUser user = PetClinicUser.of(authentication, userRepository)
+			.orElseThrow(() -> new IllegalStateException("Authenticated user not found: " + authentication.getName()));
 		if (user.getRole() == Role.ADMIN) {
 			response.sendRedirect(request.getContextPath() + "/owners/find");
 		}
 		else {
-			response.sendRedirect(request.getContextPath() + "/owners/" + user.getOwner().getId());
+			response.sendRedirect(request.getContextPath() + "/owners/" + user.getOwnerId());
 		}
 	}
 
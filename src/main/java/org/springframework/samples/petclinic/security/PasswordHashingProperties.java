@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Password hashing settings under {@code petclinic.security.password}.
+ *
+ * @param bcryptStrength the BCrypt work factor for new hashes; stored hashes with a lower
+ * work factor are re-hashed at the next successful login
+ * @param concurrentVerifications the number of password verifications that may run at
+ * once
+ * @param verificationWait how long a login waits for its turn to verify before it is
+ * rejected; kept short so that a burst fails fast instead of holding request threads
+ */
+@ConfigurationProperties("petclinic.security.password")
+record PasswordHashingProperties(int bcryptStrength, int concurrentVerifications, Duration verificationWait) {
+
+	PasswordHashingProperties {
+		bcryptStrength = (bcryptStrength > 0) ? bcryptStrength : 10;
+		concurrentVerifications = (concurrentVerifications > 0) ? concurrentVerifications
+				: Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		verificationWait = (verificationWait != null) ? verificationWait : Duration.ofMillis(200);
+	}
+
+}
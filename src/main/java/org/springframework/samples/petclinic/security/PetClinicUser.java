@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * The authenticated principal. Carries the user id, role and linked owner so that request
+ * handlers can authorize without looking the user up again.
+ * <p>
+ * The values are captured at login: a role or owner change made by an admin takes effect
+ * at the user's next login, as it already did for the granted authorities.
+ * </p>
+ */
+public final class PetClinicUser implements UserDetails, CredentialsContainer {
+
+	private final UserAccount account;
+
+	private String password;
+
+	public PetClinicUser(UserAccount account) {
+		this.account = account;
+		this.password = account.passwordHash();
+	}
+
+	/**
+	 * Return the principal of the given authentication. Authentications created by the
+	 * application's login carry it already; any other principal (for example one created
+	 * by a test) is looked up by name.
+	 * @param authentication the current authentication, may be {@code null}
+	 * @param users the repository to fall back to
+	 * @return the principal, or empty for anonymous or unknown users
+	 */
+	public static Optional<PetClinicUser> of(Authentication authentication, UserRepository users) {
+		if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+			return Optional.empty();
+		}
+		if (authentication.getPrincipal() instanceof PetClinicUser user) {
+			return Optional.of(user);
+		}
+		return users.findByEmail(authentication.getName()).map(UserAccount::of).map(PetClinicUser::new);
+	}
+
+	public Integer getId() {
+		return this.account.id();
+	}
+
+	@Override
+	public String getUsername() {
+		return this.account.email();
+	}
+
+	@Override
+	public String getPassword() {
+		return this.password;
+	}
+
+	public Role getRole() {
+		return this.account.role();
+	}
+
+	public boolean isOwner() {
+		return this.account.role() == Role.OWNER;
+	}
+
+	/**
+	 * Return the id of the owner linked to this user.
+	 * @return the owner id, or {@code null} if no owner is linked
+	 */
+	public Integer getOwnerId() {
+		return this.account.ownerId();
+	}
+
+	/**
+	 * Return the linked owner's full name, or the email if no owner is linked.
+	 * @return the name to address the user by
+	 */
+	public String getDisplayName() {
+		if (this.account.ownerId() == null) {
+			return this.account.email();
+		}
+		return this.account.ownerFirstName() + " " + this.account.ownerLastName();
+	}
+
+	@Override
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return List.of(new SimpleGrantedAuthority("ROLE_" + this.account.role().name()));
+	}
+
+	@Override
+	public void eraseCredentials() {
+		this.password = null;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return (other instanceof PetClinicUser user && Objects.equals(getUsername(), user.getUsername()));
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(getUsername());
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [id=" + getId() + ", username=" + getUsername() + ", role=" + getRole()
+				+ "]";
+	}
+
+}
@@ -16,18 +16,25 @@
 
 package org.springframework.samples.petclinic.security;
 
+import java.util.Map;
+
 import jakarta.annotation.PostConstruct;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(PasswordHashingProperties.class)
 class SecurityConfig {
 
 	private final AuthenticationSuccessHandler successHandler;
@@ -42,9 +49,33 @@ class SecurityConfig {
 				org.springframework.security.core.context.SecurityContextHolder.MODE_INHERITABLETHREADLOCAL);
 	}
 
+	/**
+	 * Encode new passwords with BCrypt at the configured strength, tagged with
+	 * {@code {bcrypt}} so that the algorithm can be changed later. Hashes stored without
+	 * a tag are BCrypt as well; they and hashes of a lower strength are re-hashed on the
+	 * next login by {@link UserDetailsServiceImpl#updatePassword}.
+	 */
 	@Bean
-	PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(properties.bcryptStrength());
+		DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+		encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+		return new BoundedPasswordEncoder(encoder, properties.concurrentVerifications(), properties.verificationWait());
+	}
+
+	/**
+	 * The versioned JSON API is for authenticated clients only. They either reuse a
+	 * browser session or send HTTP Basic credentials, and get a 401 instead of the login
+	 * page redirect when they do neither. The other {@code /api/**} endpoints keep the
+	 * rules of {@link #securityFilterChain}.
+	 */
+	@Bean
+	@Order(1)
+	SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+		http.securityMatcher("/api/v1/**")
+			.authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+			.httpBasic(Customizer.withDefaults());
+		return http.build();
 	}
 
 	@Bean
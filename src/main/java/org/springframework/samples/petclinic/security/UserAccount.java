@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.security;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Read-only projection of a {@link User} with the fields needed to authenticate and
+ * authorize requests, including the linked owner if any. Serializable, as the
+ * {@link PetClinicUser} principal holding it is stored in the HTTP session.
+ *
+ * @param id the user id
+ * @param email the login email
+ * @param passwordHash the encoded password
+ * @param role the role
+ * @param ownerId the id of the linked owner, or {@code null} for admins
+ * @param ownerFirstName the first name of the linked owner, or {@code null}
+ * @param ownerLastName the last name of the linked owner, or {@code null}
+ */
+public record UserAccount(Integer id, String email, String passwordHash, Role role, Integer ownerId,
+		String ownerFirstName, String ownerLastName) implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	static UserAccount of(User user) {
+		if (user.getOwner() == null) {
+			return new UserAccount(user.getId(), user.getEmail(), user.getPasswordHash(), user.getRole(), null, null,
+					null);
+		}
+		return new UserAccount(user.getId(), user.getEmail(), user.getPasswordHash(), user.getRole(),
+				user.getOwner().getId(), user.getOwner().getFirstName(), user.getOwner().getLastName());
+	}
+
+}
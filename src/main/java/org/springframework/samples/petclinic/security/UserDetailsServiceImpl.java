@@ -17,12 +17,23 @@
 package org.springframework.samples.petclinic.security;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Loads the {@link PetClinicUser} principal at login. The account is read from the
+ * short-lived {@value UserRepository#USERS_BY_EMAIL_CACHE} cache; each call returns a new
+ * principal, so erasing its credentials after authentication leaves the cache intact.
+ * <p>
+ * Also stores the new hash when a login re-hashes a password encoded with an outdated
+ * algorithm or strength.
+ * </p>
+ */
 @Service
-class UserDetailsServiceImpl implements UserDetailsService {
+class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
 	private final UserRepository userRepository;
 
@@ -32,12 +43,18 @@ class UserDetailsServiceImpl implements UserDetailsService {
 
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		User user = userRepository.findByEmail(username)
+		return userRepository.findAccountByEmail(username)
+			.map(PetClinicUser::new)
 			.orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-		return org.springframework.security.core.userdetails.User.withUsername(user.getEmail())
-			.password(user.getPasswordHash())
-			.roles(user.getRole().name())
-			.build();
+	}
+
+	@Override
+	@Transactional
+	public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+		User user = userRepository.findByEmail(userDetails.getUsername())
+			.orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+		user.setPasswordHash(newPassword);
+		return new PetClinicUser(UserAccount.of(userRepository.save(user)));
 	}
 
 }
@@ -16,15 +16,49 @@
 
 package org.springframework.samples.petclinic.security;
 
+import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 
 /**
- * Repository for {@link User} entities.
+ * Repository for {@link User} entities. Only declares the writes that clear the
+ * {@value #USERS_BY_EMAIL_CACHE} cache, so that no bulk write inherited from
+ * {@code JpaRepository} can leave stale accounts in it.
  */
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends Repository<User, Integer> {
+
+	/**
+	 * Name of the cache holding the results of {@link #findAccountByEmail(String)}.
+	 * Unknown emails are not cached, and every write through this repository clears it.
+	 */
+	String USERS_BY_EMAIL_CACHE = "usersByEmail";
 
 	Optional<User> findByEmail(String email);
 
+	Optional<User> findById(Integer id);
+
+	List<User> findAll();
+
+	@Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, unless = "#result == null")
+	@Query("""
+			SELECT new org.springframework.samples.petclinic.security.UserAccount(
+			    u.id, u.email, u.passwordHash, u.role, o.id, o.firstName, o.lastName)
+			FROM User u LEFT JOIN u.owner o
+			WHERE u.email = :email""")
+	Optional<UserAccount> findAccountByEmail(@Param("email") String email);
+
+	@CacheEvict(cacheNames = USERS_BY_EMAIL_CACHE, allEntries = true)
+	<S extends User> S save(S user);
+
+	@CacheEvict(cacheNames = USERS_BY_EMAIL_CACHE, allEntries = true)
+	void delete(User user);
+
+	@CacheEvict(cacheNames = USERS_BY_EMAIL_CACHE, allEntries = true)
+	void deleteById(Integer id);
+
 }
@@ -13,41 +13,66 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.springframework.samples.petclinic.system;
 
-import org.springframework.boot.cache.autoconfigure.JCacheManagerCustomizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import javax.cache.configuration.MutableConfiguration;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 /**
- * Cache configuration intended for caches providing the JCache API. This configuration
- * creates the used cache for the application and enables statistics that become
- * accessible via JMX.
+ * Caffeine cache configuration. Every cache the application uses is declared with its own
+ * Caffeine spec under {@code petclinic.cache.specs}, so size limits, expiry and
+ * refresh-ahead are tuned in properties. Caches that are not declared do not exist: using
+ * one fails instead of silently creating an unbounded cache. A cache whose spec refreshes
+ * ahead but that has no {@link CacheValueLoader} in the context only expires.
+ * <p>
+ * All caches record statistics, which Spring Boot publishes as the {@code cache.gets},
+ * {@code cache.puts} and {@code cache.evictions} metrics.
+ * </p>
  */
 @Configuration(proxyBeanMethods = false)
 @EnableCaching
+@EnableConfigurationProperties(CacheSpecProperties.class)
 class CacheConfiguration {
 
 	@Bean
-	public JCacheManagerCustomizer petclinicCacheConfigurationCustomizer() {
-		return cm -> cm.createCache("vets", cacheConfiguration());
+	public CaffeineCacheManager cacheManager(CacheSpecProperties properties, ObjectProvider<CacheValueLoader> loaders) {
+		Map<String, CacheValueLoader> loadersByCache = new HashMap<>();
+		loaders.orderedStream().forEach(loader -> loadersByCache.put(loader.cacheName(), loader));
+
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		cacheManager.setCacheNames(List.of());
+		properties.specs()
+			.forEach((name, spec) -> cacheManager.registerCustomCache(name,
+					buildCache(spec, loadersByCache.remove(name))));
+		if (!loadersByCache.isEmpty()) {
+			throw new IllegalStateException("No petclinic.cache.specs entry for caches " + loadersByCache.keySet());
+		}
+		return cacheManager;
 	}
 
-	/**
-	 * Create a simple configuration that enable statistics via the JCache programmatic
-	 * configuration API.
-	 * <p>
-	 * Within the configuration object that is provided by the JCache API standard, there
-	 * is only a very limited set of configuration options. The really relevant
-	 * configuration options (like the size limit) must be set via a configuration
-	 * mechanism that is provided by the selected JCache implementation.
-	 */
-	private javax.cache.configuration.Configuration<Object, Object> cacheConfiguration() {
-		return new MutableConfiguration<>().setStatisticsEnabled(true);
+	private static Cache<Object, Object> buildCache(String spec, CacheValueLoader loader) {
+		if (loader == null) {
+			// refreshing needs a loader; without one, for example in a context that
+			// does not scan the loader's package, entries simply expire
+			spec = Arrays.stream(spec.split(","))
+				.filter(option -> !option.strip().startsWith("refreshAfterWrite"))
+				.collect(Collectors.joining(","));
+		}
+		Caffeine<Object, Object> builder = Caffeine.from(spec.contains("recordStats") ? spec : spec + ",recordStats");
+		return (loader != null) ? builder.build(loader::load) : builder.build();
 	}
 
 }
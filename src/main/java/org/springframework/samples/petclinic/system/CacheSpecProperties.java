@@ -0,0 +1,36 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-cache Caffeine specs, for example
+ * {@code petclinic.cache.specs.vets=maximumSize=100,expireAfterWrite=10m}. See
+ * {@code com.github.benmanes.caffeine.cache.CaffeineSpec} for the supported keys.
+ *
+ * @param specs the Caffeine spec of each cache, by cache name
+ */
+@ConfigurationProperties("petclinic.cache")
+record CacheSpecProperties(Map<String, String> specs) {
+
+	CacheSpecProperties {
+		specs = (specs != null) ? Map.copyOf(specs) : Map.of();
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+/**
+ * Computes the value of a cache entry from its key. Register an implementation as a bean
+ * for caches whose spec uses {@code refreshAfterWrite}: a stale entry is then reloaded in
+ * the background while readers keep getting the previous value, instead of every reader
+ * blocking on a miss once the entry expires.
+ */
+public interface CacheValueLoader {
+
+	/**
+	 * Return the name of the cache this loader computes values for.
+	 * @return the cache name, as declared under {@code petclinic.cache.specs}
+	 */
+	String cacheName();
+
+	/**
+	 * Compute the value for the given key.
+	 * @param key the cache key
+	 * @return the value, never {@code null}
+	 */
+	Object load(Object key);
+
+}
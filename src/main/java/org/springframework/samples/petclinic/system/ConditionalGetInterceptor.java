@@ -0,0 +1,177 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Answers a GET with {@code 304 Not Modified} when the client already holds the current
+ * version of the page, before the handler, its model attribute methods or the template
+ * run. Each page supplies a cheap version lookup; a not-modified request costs only that.
+ * <p>
+ * The weak ETag combines the version with what else the rendered page depends on: the
+ * request URI and query, the user, the session (whose CSRF token the page carries) and
+ * the locale. Versions kept in the database give the same ETag on every node and across
+ * restarts; versions counted in memory by this process, which restart from zero, are
+ * combined with the start of the process as well. Responses get
+ * {@code Cache-Control: no-cache, private}, which lets browsers keep the page but makes
+ * them revalidate it on every use; Spring Security would otherwise mark them
+ * {@code no-store}. Requests carrying flash attributes are always rendered, as the flash
+ * message is not part of the version.
+ * <p>
+ * Every revalidated request is counted in {@value #METRIC_NAME}, tagged with the request
+ * mapping pattern and a {@code result} of {@code not-modified}, {@code modified} (an
+ * outdated {@code If-None-Match}) or {@code unconditional}, from which the 304 ratio of
+ * each page follows.
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+	static final String METRIC_NAME = "petclinic.http.conditional";
+
+	private static final String STARTED = UUID.randomUUID().toString();
+
+	private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+	private final Function<HttpServletRequest, ?> versions;
+
+	private final MeterRegistry registry;
+
+	private final boolean perProcess;
+
+	/**
+	 * Create an interceptor revalidating requests against the given versions, which are
+	 * kept in the database.
+	 * @param versions returns the version of the data the requested page shows, or
+	 * {@code null} if the request should not be revalidated, for example because the
+	 * requested entity does not exist
+	 * @param registry where to count the outcomes
+	 */
+	public ConditionalGetInterceptor(Function<HttpServletRequest, ?> versions, MeterRegistry registry) {
+		this(versions, registry, false);
+	}
+
+	/**
+	 * Create an interceptor revalidating requests against the given versions.
+	 * @param versions returns the version of the data the requested page shows, or
+	 * {@code null} if the request should not be revalidated
+	 * @param registry where to count the outcomes
+	 * @param perProcess whether the versions are counted in memory by this process
+	 */
+	public ConditionalGetInterceptor(Function<HttpServletRequest, ?> versions, MeterRegistry registry,
+			boolean perProcess) {
+		this.versions = versions;
+		this.registry = registry;
+		this.perProcess = perProcess;
+	}
+
+	/**
+	 * Create an interceptor revalidating requests against the given versions, which are
+	 * kept in the database, mapped to the given path patterns.
+	 * @see #ConditionalGetInterceptor(Function, MeterRegistry)
+	 */
+	public static MappedInterceptor mapped(Function<HttpServletRequest, ?> versions, MeterRegistry registry,
+			String... pathPatterns) {
+		return new MappedInterceptor(pathPatterns, new ConditionalGetInterceptor(versions, registry));
+	}
+
+	/**
+	 * Create an interceptor revalidating requests against versions counted in memory by
+	 * this process, mapped to the given path patterns.
+	 * @see #ConditionalGetInterceptor(Function, MeterRegistry, boolean)
+	 */
+	public static MappedInterceptor mappedPerProcess(Function<HttpServletRequest, ?> versions, MeterRegistry registry,
+			String... pathPatterns) {
+		return new MappedInterceptor(pathPatterns, new ConditionalGetInterceptor(versions, registry, true));
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+			return true;
+		}
+		if (!CollectionUtils.isEmpty(RequestContextUtils.getInputFlashMap(request))) {
+			return true;
+		}
+		Object version = this.versions.apply(request);
+		if (version == null) {
+			return true;
+		}
+		response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+		boolean conditional = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+		boolean notModified = new ServletWebRequest(request, response)
+			.checkNotModified(etag(request, version, this.perProcess));
+		if (!conditional) {
+			count(request, "unconditional");
+		}
+		else {
+			count(request, notModified ? "not-modified" : "modified");
+		}
+		return !notModified;
+	}
+
+	private static String etag(HttpServletRequest request, Object version, boolean perProcess) {
+		StringBuilder key = new StringBuilder(request.getRequestURI());
+		if (request.getQueryString() != null) {
+			key.append('?').append(request.getQueryString());
+		}
+		Principal user = request.getUserPrincipal();
+		HttpSession session = request.getSession(false);
+		key.append('\n')
+			.append(version)
+			.append('\n')
+			.append(user != null ? user.getName() : "")
+			.append('\n')
+			.append(session != null ? session.getId() : "")
+			.append('\n')
+			.append(RequestContextUtils.getLocale(request));
+		if (perProcess) {
+			key.append('\n').append(STARTED);
+		}
+		return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+
+	private void count(HttpServletRequest request, String result) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		Counter.builder(METRIC_NAME)
+			.description("GET requests revalidated against the version of the page")
+			.tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+			.tag("result", result)
+			.register(this.registry)
+			.increment();
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the Spring Data repository calls made while a controller handles a request and
+ * records the total in the {@value #METRIC_NAME} distribution summary, tagged with the
+ * request mapping pattern. A rising count for a page is usually a new N+1 access pattern
+ * or a lost request-level cache.
+ * <p>
+ * Calls made on other threads, such as streaming response bodies, are not counted.
+ * </p>
+ */
+class RepositoryCallCounter implements RepositoryMethodInvocationListener, AsyncHandlerInterceptor {
+
+	static final String METRIC_NAME = "petclinic.repository.calls";
+
+	private final ThreadLocal<int[]> calls = new ThreadLocal<>();
+
+	private final MeterRegistry registry;
+
+	RepositoryCallCounter(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void afterInvocation(RepositoryMethodInvocation invocation) {
+		int[] count = this.calls.get();
+		if (count != null) {
+			count[0]++;
+		}
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (handler instanceof HandlerMethod) {
+			this.calls.set(new int[1]);
+		}
+		return true;
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+			Object handler) {
+		this.calls.remove();
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		int[] count = this.calls.get();
+		this.calls.remove();
+		if (count == null) {
+			return;
+		}
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		DistributionSummary.builder(METRIC_NAME)
+			.description("Repository method calls made while handling a request")
+			.baseUnit("calls")
+			.tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+			.register(this.registry)
+			.record(count[0]);
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wires {@link RepositoryCallCounter} into every Spring Data repository and into the MVC
+ * handler chain, so the number of repository calls per request is published as a metric.
+ */
+@Configuration(proxyBeanMethods = false)
+class RepositoryMetricsConfiguration {
+
+	@Bean
+	RepositoryCallCounter repositoryCallCounter(MeterRegistry registry) {
+		return new RepositoryCallCounter(registry);
+	}
+
+	@Bean
+	MappedInterceptor repositoryCallInterceptor(RepositoryCallCounter counter) {
+		return new MappedInterceptor(null, counter);
+	}
+
+	/**
+	 * Register the counter as invocation listener before each repository factory bean
+	 * creates its repository. Static, and resolving the counter lazily, so that the
+	 * post-processor does not force the meter registry to be created early.
+	 * @param counter the counter to register
+	 * @return the post-processor
+	 */
+	@Bean
+	static BeanPostProcessor repositoryCallListenerRegistrar(ObjectProvider<RepositoryCallCounter> counter) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+					factoryBean
+						.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(counter.getObject()));
+				}
+				return bean;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.util.List;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository class for <code>Specialty</code> domain objects.
+ */
+public interface SpecialtyRepository extends Repository<Specialty, Integer> {
+
+	/**
+	 * Name of the cache holding the result of {@link #findSpecialtyNamesInUse()}.
+	 */
+	String SPECIALTY_NAMES_CACHE = "specialties";
+
+	/**
+	 * Retrieve the names of the specialties that at least one vet has, for the vet list
+	 * filter. Cached until the vet data changes.
+	 * @return the distinct specialty names, sorted
+	 */
+	@Transactional(readOnly = true)
+	@Cacheable(SPECIALTY_NAMES_CACHE)
+	@Query("SELECT DISTINCT s.name FROM Vet v JOIN v.specialties s ORDER BY s.name")
+	List<String> findSpecialtyNamesInUse();
+
+}
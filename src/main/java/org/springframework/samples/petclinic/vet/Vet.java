@@ -15,16 +15,19 @@
  */
 package org.springframework.samples.petclinic.vet;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.DomainEvents;
 import org.springframework.samples.petclinic.model.NamedEntity;
 import org.springframework.samples.petclinic.model.Person;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
@@ -42,6 +45,7 @@ import jakarta.xml.bind.annotation.XmlElement;
  */
 @Entity
 @Table(name = "vets")
+@EntityListeners(VetChangeListener.class)
 public class Vet extends Person {
 
 	@ManyToMany(fetch = FetchType.EAGER)
@@ -71,4 +75,13 @@ public class Vet extends Person {
 		getSpecialtiesInternal().add(specialty);
 	}
 
+	/**
+	 * Announce every save through {@link VetRepository#save(Vet)}, including saves that
+	 * only change the specialties, for which JPA calls no entity listener.
+	 */
+	@DomainEvents
+	Collection<VetsChangedEvent> changes() {
+		return List.of(new VetsChangedEvent(this));
+	}
+
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the vet caches of this node once a change to the vet data has committed.
+ * Evicting earlier would let a concurrent reader cache the old state again. The caches
+ * are evicted before {@link VetDataVersion} moves, so a page rendered from the old
+ * entries keeps the old version.
+ */
+@Component
+class VetCacheInvalidator {
+
+	private final CacheManager cacheManager;
+
+	VetCacheInvalidator(CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	void onVetsChanged(VetsChangedEvent event) {
+		evict();
+	}
+
+	void evict() {
+		clear(VetRepository.VETS_CACHE);
+		clear(VetRepository.VET_PAGES_CACHE);
+		clear(SpecialtyRepository.SPECIALTY_NAMES_CACHE);
+	}
+
+	private void clear(String name) {
+		Cache cache = this.cacheManager.getCache(name);
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+}
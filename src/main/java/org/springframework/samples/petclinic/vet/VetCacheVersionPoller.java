@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propagates vet cache invalidations between nodes through the {@link VetDataVersion} in
+ * the {@code cache_versions} table. Every node polls the version and evicts its vet
+ * caches when another node has moved it.
+ * <p>
+ * The version is incremented in its own transaction after the change has committed, so a
+ * node that fails in between leaves the other nodes stale until the cache entries expire.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "petclinic.cache.cluster.enabled", havingValue = "true")
+class VetCacheVersionPoller {
+
+	private final VetDataVersion version;
+
+	private final VetCacheInvalidator invalidator;
+
+	private Long lastSeenVersion;
+
+	VetCacheVersionPoller(VetDataVersion version, VetCacheInvalidator invalidator) {
+		this.version = version;
+		this.invalidator = invalidator;
+	}
+
+	@Scheduled(fixedDelayString = "${petclinic.cache.cluster.poll-interval:5s}")
+	synchronized void poll() {
+		long version = this.version.read();
+		if (this.lastSeenVersion != null && this.lastSeenVersion != version) {
+			this.invalidator.evict();
+		}
+		this.version.applied(version);
+		this.lastSeenVersion = version;
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.samples.petclinic.model.BaseEntity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that publishes a {@link VetsChangedEvent} whenever a {@link Vet} or
+ * {@link Specialty} is inserted, updated or deleted. Instantiated by Hibernate through
+ * Spring.
+ * <p>
+ * Changes that only touch a vet's specialties collection do not trigger a callback; such
+ * changes must be saved through {@link VetRepository#save(Vet)}, which publishes the
+ * event itself.
+ * </p>
+ */
+class VetChangeListener {
+
+	private final ApplicationEventPublisher events;
+
+	VetChangeListener(ApplicationEventPublisher events) {
+		this.events = events;
+	}
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	void vetDataChanged(BaseEntity entity) {
+		this.events.publishEvent(new VetsChangedEvent(entity));
+	}
+
+}
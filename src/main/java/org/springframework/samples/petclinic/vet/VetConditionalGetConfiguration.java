@@ -0,0 +1,39 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.vet;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.samples.petclinic.system.ConditionalGetInterceptor;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Revalidates the vet pages against the {@link VetDataVersion}, so an unchanged vet list
+ * is answered with a 304 without a cache or repository lookup. The version is shared by
+ * all nodes, so a client keeps its copy across nodes and restarts.
+ */
+@Configuration(proxyBeanMethods = false)
+class VetConditionalGetConfiguration {
+
+	@Bean
+	MappedInterceptor vetsConditionalGet(VetDataVersion version, MeterRegistry registry) {
+		return ConditionalGetInterceptor.mapped(request -> version.current(), registry, "/vets", "/vets.html");
+	}
+
+}
@@ -37,8 +37,11 @@ class VetController {
 
 	private final VetRepository vetRepository;
 
-	public VetController(VetRepository vetRepository) {
+	private final SpecialtyRepository specialtyRepository;
+
+	public VetController(VetRepository vetRepository, SpecialtyRepository specialtyRepository) {
 		this.vetRepository = vetRepository;
+		this.specialtyRepository = specialtyRepository;
 	}
 
 	@GetMapping("/vets.html")
@@ -55,14 +58,7 @@ class VetController {
 		model.addAttribute("totalItems", paginated.getTotalElements());
 		model.addAttribute("listVets", listVets);
 		model.addAttribute("specialty", specialty);
-		List<String> listSpecialties = this.vetRepository.findAll()
-			.stream()
-			.flatMap(vet -> vet.getSpecialties().stream())
-			.map(Specialty::getName)
-			.distinct()
-			.sorted()
-			.toList();
-		model.addAttribute("listSpecialties", listSpecialties);
+		model.addAttribute("listSpecialties", this.specialtyRepository.findSpecialtyNamesInUse());
 		return "vets/vetList";
 	}
 
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The version of the vet data, kept in the {@code cache_versions} table so that it is the
+ * same on every node and survives restarts. A node that commits a change to the vet data
+ * increments it, after {@link VetCacheInvalidator} has evicted the node's vet caches.
+ * <p>
+ * {@link #current()} answers from memory with the version whose changes this node's
+ * caches reflect: the one it last wrote, or, with clustering enabled, the one
+ * {@link VetCacheVersionPoller} last applied. A page rendered from the caches therefore
+ * never carries a newer version than its content.
+ * </p>
+ */
+@Component
+class VetDataVersion {
+
+	static final String NAME = "vets";
+
+	private static final long UNKNOWN = -1;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate newTransaction;
+
+	private final AtomicLong applied = new AtomicLong(UNKNOWN);
+
+	VetDataVersion(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.newTransaction = new TransactionTemplate(transactionManager);
+		this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	void onVetsChanged(VetsChangedEvent event) {
+		Long version = this.newTransaction.execute(status -> {
+			this.jdbcTemplate.update("UPDATE cache_versions SET version = version + 1 WHERE name = ?", NAME);
+			return read();
+		});
+		applied(version);
+	}
+
+	/**
+	 * Return the version this node's vet caches reflect, reading it from the database the
+	 * first time.
+	 */
+	long current() {
+		long version = this.applied.get();
+		if (version == UNKNOWN) {
+			version = this.applied.updateAndGet(known -> (known == UNKNOWN) ? read() : known);
+		}
+		return version;
+	}
+
+	/**
+	 * Return the version in the database, which other nodes may have moved.
+	 */
+	long read() {
+		return this.jdbcTemplate.queryForObject("SELECT version FROM cache_versions WHERE name = ?", Long.class, NAME);
+	}
+
+	/**
+	 * Record that this node's vet caches reflect the given version.
+	 */
+	void applied(long version) {
+		this.applied.accumulateAndGet(version, Math::max);
+	}
+
+}
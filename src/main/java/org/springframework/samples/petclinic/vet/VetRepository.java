@@ -39,12 +39,22 @@ import java.util.Collection;
  */
 public interface VetRepository extends Repository<Vet, Integer> {
 
+	/**
+	 * Name of the cache holding the result of {@link #findAll()}.
+	 */
+	String VETS_CACHE = "vets";
+
+	/**
+	 * Name of the cache holding the results of {@link #findAll(Pageable)}, keyed by page.
+	 */
+	String VET_PAGES_CACHE = "vetPages";
+
 	/**
 	 * Retrieve all <code>Vet</code>s from the data store.
 	 * @return a <code>Collection</code> of <code>Vet</code>s
 	 */
 	@Transactional(readOnly = true)
-	@Cacheable("vets")
+	@Cacheable(VETS_CACHE)
 	Collection<Vet> findAll() throws DataAccessException;
 
 	/**
@@ -54,9 +64,17 @@ public interface VetRepository extends Repository<Vet, Integer> {
 	 * @throws DataAccessException
 	 */
 	@Transactional(readOnly = true)
-	@Cacheable("vets")
+	@Cacheable(VET_PAGES_CACHE)
 	Page<Vet> findAll(Pageable pageable) throws DataAccessException;
 
+	/**
+	 * Save a <code>Vet</code> to the data store, either inserting or updating it.
+	 * Publishes a {@link VetsChangedEvent} even if only the vet's specialties changed.
+	 * @param vet the <code>Vet</code> to save
+	 * @return the saved <code>Vet</code>
+	 */
+	Vet save(Vet vet);
+
 	@Transactional(readOnly = true)
 	@Query("SELECT v FROM Vet v JOIN v.specialties s WHERE LOWER(s.name) = LOWER(:specialty)")
 	Page<Vet> findBySpecialtyName(@Param("specialty") String specialty, Pageable pageable);
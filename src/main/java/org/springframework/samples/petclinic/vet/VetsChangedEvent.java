@@ -0,0 +1,28 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import org.springframework.samples.petclinic.model.BaseEntity;
+
+/**
+ * Published when a {@link Vet} or {@link Specialty} is inserted, updated or deleted, so
+ * that everything derived from the vet data can be evicted once the change commits.
+ *
+ * @param entity the vet or specialty that changed
+ */
+public record VetsChangedEvent(BaseEntity entity) {
+
+}
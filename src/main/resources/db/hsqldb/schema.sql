@@ -1,3 +1,5 @@
+DROP TABLE chat_messages IF EXISTS;
+DROP TABLE cache_versions IF EXISTS;
 DROP TABLE vet_specialties IF EXISTS;
 DROP TABLE vets IF EXISTS;
 DROP TABLE specialties IF EXISTS;
@@ -39,9 +41,14 @@ CREATE TABLE owners (
   last_name  VARCHAR_IGNORECASE(30),
   address    VARCHAR(255),
   city       VARCHAR(80),
-  telephone  VARCHAR(20)
+  telephone  VARCHAR(20),
+  last_name_search VARCHAR(30) GENERATED ALWAYS AS (LOWER(last_name)),
+  city_search      VARCHAR(80) GENERATED ALWAYS AS (LOWER(city)),
+  version    INTEGER DEFAULT 0 NOT NULL
 );
 CREATE INDEX owners_last_name ON owners (last_name);
+CREATE INDEX owners_last_name_search ON owners (last_name_search, id);
+CREATE INDEX owners_city_search ON owners (city_search, id);
 ALTER TABLE owners ADD CONSTRAINT uc_owner_name_telephone UNIQUE (first_name, last_name, telephone);
 
 CREATE TABLE pets (
@@ -49,7 +56,8 @@ CREATE TABLE pets (
   name       VARCHAR(30),
   birth_date DATE,
   type_id    INTEGER NOT NULL,
-  owner_id   INTEGER
+  owner_id   INTEGER,
+  version    INTEGER DEFAULT 0 NOT NULL
 );
 ALTER TABLE pets ADD CONSTRAINT fk_pets_owners FOREIGN KEY (owner_id) REFERENCES owners (id);
 ALTER TABLE pets ADD CONSTRAINT fk_pets_types FOREIGN KEY (type_id) REFERENCES types (id);
@@ -59,7 +67,25 @@ CREATE TABLE visits (
   id          INTEGER IDENTITY PRIMARY KEY,
   pet_id      INTEGER,
   visit_date  DATE,
-  description VARCHAR(255)
+  description VARCHAR(255),
+  version     INTEGER DEFAULT 0 NOT NULL
 );
 ALTER TABLE visits ADD CONSTRAINT fk_visits_pets FOREIGN KEY (pet_id) REFERENCES pets (id);
 CREATE INDEX visits_pet_id ON visits (pet_id);
+-- Upcoming visits: date range scan in (date, id) order, joined to pets from the index
+CREATE INDEX visits_visit_date ON visits (visit_date, id, pet_id);
+
+CREATE TABLE cache_versions (
+  name    VARCHAR(30) PRIMARY KEY,
+  version BIGINT NOT NULL
+);
+
+CREATE TABLE chat_messages (
+  conversation_id VARCHAR(64) NOT NULL,
+  message_index   INTEGER     NOT NULL,
+  message_type    VARCHAR(10) NOT NULL,
+  content         CLOB        NOT NULL,
+  updated_at      TIMESTAMP   NOT NULL,
+  PRIMARY KEY (conversation_id, message_index)
+);
+CREATE INDEX chat_messages_updated_at ON chat_messages (updated_at);
@@ -32,29 +32,103 @@ CREATE TABLE IF NOT EXISTS owners (
   address VARCHAR(255),
   city VARCHAR(80),
   telephone VARCHAR(20),
+  last_name_search VARCHAR(30) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin AS (LOWER(last_name)) STORED,
+  city_search VARCHAR(80) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin AS (LOWER(city)) STORED,
+  version INT NOT NULL DEFAULT 0,
   INDEX(last_name),
+  INDEX idx_owners_last_name_search (last_name_search, id),
+  INDEX idx_owners_city_search (city_search, id),
   UNIQUE (first_name, last_name, telephone)
 ) engine=InnoDB;
 
+-- CREATE TABLE IF NOT EXISTS leaves the tables of an existing database alone, so columns
+-- and indexes added since are created below when missing
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'ALTER TABLE owners ADD COLUMN last_name_search VARCHAR(30) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin AS (LOWER(last_name)) STORED',
+  'DO 0') FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'last_name_search');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'ALTER TABLE owners ADD COLUMN city_search VARCHAR(80) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin AS (LOWER(city)) STORED',
+  'DO 0') FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'city_search');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'CREATE INDEX idx_owners_last_name_search ON owners (last_name_search, id)',
+  'DO 0') FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'last_name_search' AND seq_in_index = 1);
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'CREATE INDEX idx_owners_city_search ON owners (city_search, id)',
+  'DO 0') FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'city_search' AND seq_in_index = 1);
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'ALTER TABLE owners ADD COLUMN version INT NOT NULL DEFAULT 0',
+  'DO 0') FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'version');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
 CREATE TABLE IF NOT EXISTS pets (
   id INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
   name VARCHAR(30),
   birth_date DATE,
   type_id INT(4) UNSIGNED NOT NULL,
   owner_id INT(4) UNSIGNED,
+  version INT NOT NULL DEFAULT 0,
   INDEX(name),
   FOREIGN KEY (owner_id) REFERENCES owners(id),
   FOREIGN KEY (type_id) REFERENCES types(id)
 ) engine=InnoDB;
 
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'ALTER TABLE pets ADD COLUMN version INT NOT NULL DEFAULT 0',
+  'DO 0') FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'pets' AND column_name = 'version');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
 CREATE TABLE IF NOT EXISTS visits (
   id INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
   pet_id INT(4) UNSIGNED,
   visit_date DATE,
   description VARCHAR(255),
+  version INT NOT NULL DEFAULT 0,
+  INDEX idx_visits_visit_date (visit_date, id, pet_id, description),
   FOREIGN KEY (pet_id) REFERENCES pets(id)
 ) engine=InnoDB;
 
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'ALTER TABLE visits ADD COLUMN version INT NOT NULL DEFAULT 0',
+  'DO 0') FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'visits' AND column_name = 'version');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'CREATE INDEX idx_visits_visit_date ON visits (visit_date, id, pet_id, description)',
+  'DO 0') FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'visits' AND column_name = 'visit_date' AND seq_in_index = 1);
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
 CREATE TABLE IF NOT EXISTS users (
   id            INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
   email         VARCHAR(255) NOT NULL,
@@ -64,3 +138,18 @@ CREATE TABLE IF NOT EXISTS users (
   UNIQUE (email),
   FOREIGN KEY (owner_id) REFERENCES owners(id)
 ) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS cache_versions (
+  name    VARCHAR(30) NOT NULL PRIMARY KEY,
+  version BIGINT NOT NULL
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS chat_messages (
+  conversation_id VARCHAR(64) NOT NULL,
+  message_index   INT         NOT NULL,
+  message_type    VARCHAR(10) NOT NULL,
+  content         TEXT        NOT NULL,
+  updated_at      TIMESTAMP   NOT NULL,
+  PRIMARY KEY (conversation_id, message_index),
+  INDEX(updated_at)
+) engine=InnoDB;
@@ -64,6 +64,8 @@ INSERT INTO users (email, password_hash, role, owner_id) SELECT 'maria.escobito@
 INSERT INTO users (email, password_hash, role, owner_id) SELECT 'david.schroeder@petclinic.com', '$2a$10$.GMykgbgS3n0NNtLeY2Tc.5/HRYewotAdfS9ft9uTO4QyTMWSKIO.', 'OWNER', 9 WHERE NOT EXISTS (SELECT * FROM users WHERE email='david.schroeder@petclinic.com');
 INSERT INTO users (email, password_hash, role, owner_id) SELECT 'carlos.estaban@petclinic.com', '$2a$10$.GMykgbgS3n0NNtLeY2Tc.5/HRYewotAdfS9ft9uTO4QyTMWSKIO.', 'OWNER', 10 WHERE NOT EXISTS (SELECT * FROM users WHERE email='carlos.estaban@petclinic.com');
 
+INSERT INTO cache_versions (name, version) SELECT 'vets', 0 WHERE NOT EXISTS (SELECT * FROM cache_versions WHERE name='vets');
+
 SELECT setval(pg_get_serial_sequence('vets', 'id'), COALESCE((SELECT MAX(id) FROM vets), 0));
 SELECT setval(pg_get_serial_sequence('specialties', 'id'), COALESCE((SELECT MAX(id) FROM specialties), 0));
 SELECT setval(pg_get_serial_sequence('types', 'id'), COALESCE((SELECT MAX(id) FROM types), 0));
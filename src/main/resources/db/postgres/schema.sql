@@ -32,6 +32,12 @@ CREATE TABLE IF NOT EXISTS owners (
   telephone  TEXT
 );
 CREATE INDEX IF NOT EXISTS idx_owners_last_name ON owners (last_name);
+-- Lower-cased search columns use the "C" collation so prefix searches become plain index range scans
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS last_name_search TEXT COLLATE "C" GENERATED ALWAYS AS (LOWER(last_name)) STORED;
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS city_search TEXT COLLATE "C" GENERATED ALWAYS AS (LOWER(city)) STORED;
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
+CREATE INDEX IF NOT EXISTS idx_owners_last_name_search ON owners (last_name_search, id);
+CREATE INDEX IF NOT EXISTS idx_owners_city_search ON owners (city_search, id);
 CREATE UNIQUE INDEX IF NOT EXISTS uc_owner_name_telephone ON owners (LOWER(first_name), LOWER(last_name), telephone);
 
 CREATE TABLE IF NOT EXISTS pets (
@@ -41,6 +47,7 @@ CREATE TABLE IF NOT EXISTS pets (
   type_id    INT NOT NULL REFERENCES types (id),
   owner_id   INT REFERENCES owners (id)
 );
+ALTER TABLE pets ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
 CREATE INDEX IF NOT EXISTS idx_pets_name ON pets (name);
 CREATE INDEX IF NOT EXISTS idx_pets_owner_id ON pets (owner_id);
 
@@ -50,7 +57,10 @@ CREATE TABLE IF NOT EXISTS visits (
   visit_date  DATE,
   description TEXT
 );
+ALTER TABLE visits ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
 CREATE INDEX IF NOT EXISTS idx_visits_pet_id ON visits (pet_id);
+-- Upcoming visits: date range scan in (date, id) order, covering the columns the list shows
+CREATE INDEX IF NOT EXISTS idx_visits_visit_date ON visits (visit_date, id) INCLUDE (pet_id, description);
 
 CREATE TABLE IF NOT EXISTS users (
   id            INT  GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -60,3 +70,18 @@ CREATE TABLE IF NOT EXISTS users (
   owner_id      INT REFERENCES owners (id),
   CONSTRAINT uc_user_email UNIQUE (email)
 );
+
+CREATE TABLE IF NOT EXISTS cache_versions (
+  name    TEXT PRIMARY KEY,
+  version BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS chat_messages (
+  conversation_id TEXT      NOT NULL,
+  message_index   INTEGER   NOT NULL,
+  message_type    TEXT      NOT NULL,
+  content         TEXT      NOT NULL,
+  updated_at      TIMESTAMP NOT NULL,
+  PRIMARY KEY (conversation_id, message_index)
+);
+CREATE INDEX IF NOT EXISTS chat_messages_updated_at ON chat_messages (updated_at);
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.samples.petclinic.security.Role;
+import org.springframework.samples.petclinic.security.User;
+import org.springframework.samples.petclinic.security.UserRepository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Load-test harness shared by {@link PlatformThreadsBenchmarkTests} and
+ * {@link VirtualThreadsBenchmarkTests}: starts the application on a random port, logs in
+ * once and hits {@code /owners}, {@code /vets.html} and {@code /owners/{id}} with many
+ * concurrent HTTP clients, reporting p50 to p99 latency and throughput per page.
+ * <p>
+ * The number of clients ({@code petclinic.benchmark.clients}, default 400) exceeds
+ * Tomcat's default 200 worker threads, which is where the two modes differ. Run against a
+ * real database ({@code -Dspring.profiles.active=postgres}) to include network latency in
+ * the blocking JDBC calls.
+ * </p>
+ */
+abstract class AbstractThreadingModeBenchmarkTests {
+
+	private static final List<String> PAGES = List.of("/owners?lastName=", "/vets.html", "/owners/1");
+
+	private static final int CLIENTS = Integer.getInteger("petclinic.benchmark.clients", 400);
+
+	private static final int REQUESTS_PER_CLIENT = Integer.getInteger("petclinic.benchmark.requests-per-client", 25);
+
+	private static final String EMAIL = "load.test@petclinic.com";
+
+	private static final String PASSWORD = "load-test-pass";
+
+	private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private UserRepository users;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void pageThroughputAndLatency() throws Exception {
+		HttpClient client = login();
+		ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+		try {
+			for (String page : PAGES) {
+				run(client, clients, page, REQUESTS_PER_CLIENT / 5);
+				long[] samples = new long[CLIENTS * REQUESTS_PER_CLIENT];
+				long start = System.nanoTime();
+				int failures = run(client, clients, page, REQUESTS_PER_CLIENT, samples);
+				double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+				LatencyRecorder result = LatencyRecorder.of(mode() + " " + page, samples);
+				System.out.printf("%s throughput=%.0f/s%n", result.summary(), samples.length / seconds);
+				assertThat(failures).as(result.summary()).isZero();
+			}
+		}
+		finally {
+			clients.shutdownNow();
+		}
+	}
+
+	abstract String mode();
+
+	private int run(HttpClient client, ExecutorService clients, String page, int requests) throws Exception {
+		return run(client, clients, page, requests, new long[CLIENTS * requests]);
+	}
+
+	private int run(HttpClient client, ExecutorService clients, String page, int requests, long[] samples)
+			throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri(page)).build();
+		AtomicInteger failures = new AtomicInteger();
+		List<Future<?>> running = new ArrayList<>();
+		for (int c = 0; c < CLIENTS; c++) {
+			int offset = c * requests;
+			running.add(clients.submit(() -> {
+				for (int i = 0; i < requests; i++) {
+					long start = System.nanoTime();
+					try {
+						if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+							failures.incrementAndGet();
+						}
+					}
+					catch (Exception ex) {
+						failures.incrementAndGet();
+					}
+					samples[offset + i] = System.nanoTime() - start;
+				}
+			}));
+		}
+		for (Future<?> future : running) {
+			future.get();
+		}
+		return failures.get();
+	}
+
+	private HttpClient login() throws Exception {
+		if (this.users.findByEmail(EMAIL).isEmpty()) {
+			User user = new User();
+			user.setEmail(EMAIL);
+			user.setPasswordHash(this.passwordEncoder.encode(PASSWORD));
+			user.setRole(Role.ADMIN);
+			this.users.save(user);
+		}
+		HttpClient client = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+		String loginPage = client
+			.send(HttpRequest.newBuilder(uri("/login")).build(), HttpResponse.BodyHandlers.ofString())
+			.body();
+		Matcher csrf = CSRF.matcher(loginPage);
+		assertThat(csrf.find()).as("CSRF token on the login page").isTrue();
+		String form = "username=" + encode(EMAIL) + "&password=" + encode(PASSWORD) + "&_csrf=" + encode(csrf.group(1));
+		HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri("/login"))
+			.header("Content-Type", "application/x-www-form-urlencoded")
+			.POST(HttpRequest.BodyPublishers.ofString(form))
+			.build(), HttpResponse.BodyHandlers.discarding());
+		assertThat(response.headers().firstValue("Location"))
+			.hasValueSatisfying(location -> assertThat(location).doesNotContain("error"));
+		return client;
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + this.port + path);
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.benchmark;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+
+/**
+ * Bulk data generators for the benchmarks. Rows are inserted with plain JDBC batches,
+ * which is orders of magnitude faster than going through JPA for millions of rows.
+ */
+final class BenchmarkData {
+
+	private static final String[] SYLLABLES = { "da", "vis", "mc", "tav", "ish", "frank", "lin", "cole", "man", "black",
+			"es", "co", "bi", "to", "schro", "der", "ro", "dri", "quez", "ste" };
+
+	private static final String[] CITIES = { "Madison", "Sun Prairie", "McFarland", "Windsor", "Monona", "Waunakee",
+			"Middleton", "Verona", "Fitchburg", "Oregon" };
+
+	private static final int BATCH_SIZE = 10_000;
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Top the owners table up to {@code target} rows. Benchmarks that run several sizes
+	 * against the same database therefore only insert the rows the previous size did not.
+	 * @param dataSource the database to fill
+	 * @param target the number of owners the table should contain
+	 */
+	static void seedOwners(DataSource dataSource, int target) {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		Integer existing = jdbc.queryForObject("SELECT COUNT(*) FROM owners", Integer.class);
+		Random random = new Random(target);
+		for (int from = existing; from < target; from += BATCH_SIZE) {
+			int start = from;
+			int size = Math.min(BATCH_SIZE, target - from);
+			jdbc.batchUpdate(
+					"INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES (?, ?, ?, ?, ?)",
+					new BatchPreparedStatementSetter() {
+
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							int n = start + i;
+							ps.setString(1, "Owner" + n);
+							ps.setString(2, lastName(random));
+							ps.setString(3, n + " Benchmark St.");
+							ps.setString(4, CITIES[random.nextInt(CITIES.length)]);
+							ps.setString(5, String.format("%010d", n));
+						}
+
+						@Override
+						public int getBatchSize() {
+							return size;
+						}
+
+					});
+		}
+	}
+
+	/**
+	 * Insert a new owner with one pet that has {@code pastVisits} visits in the past.
+	 * @param dataSource the database to fill
+	 * @param pastVisits the number of visits the pet already had
+	 * @return the id of the new owner
+	 */
+	static int seedOwnerWithVisits(DataSource dataSource, int pastVisits) {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		Integer n = jdbc.queryForObject("SELECT COUNT(*) FROM owners", Integer.class);
+		int ownerId = new SimpleJdbcInsert(dataSource).withTableName("owners")
+			.usingColumns("first_name", "last_name", "address", "city", "telephone")
+			.usingGeneratedKeyColumns("id")
+			.executeAndReturnKey(Map.of("first_name", "Owner" + n, "last_name", "Visitor", "address",
+					n + " Benchmark St.", "city", "Madison", "telephone", String.format("%010d", n)))
+			.intValue();
+		int petId = new SimpleJdbcInsert(dataSource).withTableName("pets")
+			.usingColumns("name", "birth_date", "type_id", "owner_id")
+			.usingGeneratedKeyColumns("id")
+			.executeAndReturnKey(Map.of("name", "Frequent", "birth_date", Date.valueOf("2010-01-01"), "type_id", 1,
+					"owner_id", ownerId))
+			.intValue();
+		LocalDate firstVisit = LocalDate.now().minusDays(pastVisits + 1L);
+		for (int from = 0; from < pastVisits; from += BATCH_SIZE) {
+			int start = from;
+			int size = Math.min(BATCH_SIZE, pastVisits - from);
+			jdbc.batchUpdate("INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)",
+					new BatchPreparedStatementSetter() {
+
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							ps.setInt(1, petId);
+							ps.setDate(2, Date.valueOf(firstVisit.plusDays(start + i)));
+							ps.setString(3, "checkup " + (start + i));
+						}
+
+						@Override
+						public int getBatchSize() {
+							return size;
+						}
+
+					});
+		}
+		return ownerId;
+	}
+
+	/**
+	 * Top the visits in the coming year up to {@code target} rows, spread over one pet
+	 * for each existing owner and over the days of the year. Pets are added to the owners
+	 * that have none.
+	 * @param dataSource the database to fill
+	 * @param target the number of upcoming visits the table should contain
+	 */
+	static void seedUpcomingVisits(DataSource dataSource, int target) {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		LocalDate today = LocalDate.now();
+		int[] petIds = petPerOwner(jdbc);
+		Integer existing = jdbc.queryForObject("SELECT COUNT(*) FROM visits WHERE visit_date > ?", Integer.class,
+				Date.valueOf(today));
+		for (int from = existing; from < target; from += BATCH_SIZE) {
+			int start = from;
+			int size = Math.min(BATCH_SIZE, target - from);
+			jdbc.batchUpdate("INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)",
+					new BatchPreparedStatementSetter() {
+
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							int n = start + i;
+							ps.setInt(1, petIds[n % petIds.length]);
+							ps.setDate(2, Date.valueOf(today.plusDays(1 + n % 364)));
+							ps.setString(3, "booster " + n);
+						}
+
+						@Override
+						public int getBatchSize() {
+							return size;
+						}
+
+					});
+		}
+	}
+
+	/**
+	 * Top the visits table up to {@code target} rows, spread over one pet for each
+	 * existing owner and over the days from {@code years} years ago to {@code years}
+	 * years ahead, so that a date range selects a small share of the table. Pets are
+	 * added to the owners that have none.
+	 * @param dataSource the database to fill
+	 * @param target the number of visits the table should contain
+	 * @param years how far the visits reach into the past and the future
+	 */
+	static void seedVisitHistory(DataSource dataSource, int target, int years) {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		LocalDate first = LocalDate.now().minusYears(years);
+		int days = (int) (LocalDate.now().plusYears(years).toEpochDay() - first.toEpochDay());
+		int[] petIds = petPerOwner(jdbc);
+		Integer existing = jdbc.queryForObject("SELECT COUNT(*) FROM visits", Integer.class);
+		for (int from = existing; from < target; from += BATCH_SIZE) {
+			int start = from;
+			int size = Math.min(BATCH_SIZE, target - from);
+			jdbc.batchUpdate("INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)",
+					new BatchPreparedStatementSetter() {
+
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							int n = start + i;
+							ps.setInt(1, petIds[n % petIds.length]);
+							// a prime stride spreads consecutive rows over the period
+							ps.setDate(2, Date.valueOf(first.plusDays((n * 7919L) % days)));
+							ps.setString(3, "visit " + n);
+						}
+
+						@Override
+						public int getBatchSize() {
+							return size;
+						}
+
+					});
+		}
+	}
+
+	private static int[] petPerOwner(JdbcTemplate jdbc) {
+		jdbc.update("INSERT INTO pets (name, birth_date, type_id, owner_id) "
+				+ "SELECT 'Upcoming', ?, 1, o.id FROM owners o WHERE NOT EXISTS "
+				+ "(SELECT 1 FROM pets p WHERE p.owner_id = o.id)", Date.valueOf("2015-01-01"));
+		return jdbc.queryForList("SELECT id FROM pets ORDER BY id", Integer.class)
+			.stream()
+			.mapToInt(Integer::intValue)
+			.toArray();
+	}
+
+	private static String lastName(Random random) {
+		StringBuilder name = new StringBuilder();
+		int parts = 2 + random.nextInt(2);
+		for (int i = 0; i < parts; i++) {
+			name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+		}
+		name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+		return (name.length() > 30) ? name.substring(0, 30) : name.toString();
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Minimal latency sampler for the opt-in benchmarks in this package. Runs a task a number
+ * of times after a warm-up phase and reports percentiles of the observed wall-clock
+ * times.
+ */
+final class LatencyRecorder {
+
+	private final String name;
+
+	private final long[] samples;
+
+	private LatencyRecorder(String name, long[] samples) {
+		this.name = name;
+		this.samples = samples;
+		Arrays.sort(this.samples);
+	}
+
+	static LatencyRecorder measure(String name, int warmups, int iterations, Runnable task) {
+		for (int i = 0; i < warmups; i++) {
+			task.run();
+		}
+		long[] samples = new long[iterations];
+		for (int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			task.run();
+			samples[i] = System.nanoTime() - start;
+		}
+		return new LatencyRecorder(name, samples);
+	}
+
+	/**
+	 * Create a recorder from latencies that were sampled elsewhere, for example by
+	 * concurrent clients.
+	 * @param name the name to report
+	 * @param samples the latencies, in nanoseconds
+	 * @return the recorder
+	 */
+	static LatencyRecorder of(String name, long[] samples) {
+		return new LatencyRecorder(name, samples.clone());
+	}
+
+	/**
+	 * Return the given percentile in milliseconds using the nearest-rank method.
+	 * @param percentile a value between 0 and 100
+	 * @return the latency at that percentile, in milliseconds
+	 */
+	double percentileMillis(double percentile) {
+		int rank = (int) Math.ceil(percentile / 100.0 * this.samples.length);
+		int index = Math.min(Math.max(rank - 1, 0), this.samples.length - 1);
+		return this.samples[index] / 1_000_000.0;
+	}
+
+	/**
+	 * Return the number of task runs per second over the measured iterations.
+	 * @return the throughput in operations per second
+	 */
+	double throughputPerSecond() {
+		long total = 0;
+		for (long sample : this.samples) {
+			total += sample;
+		}
+		return this.samples.length * 1_000_000_000.0 / Math.max(total, 1);
+	}
+
+	String summary() {
+		return String.format("%-40s n=%d p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms", this.name, this.samples.length,
+				percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(100));
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.context.annotation.Import;
+import org.springframework.samples.petclinic.owner.OwnerCsvExporter;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Measures the heap cost of the streaming owners CSV export ({@link OwnerCsvExporter})
+ * per 100k exported rows.
+ * <p>
+ * Two numbers are reported: bytes allocated by the exporting thread (GC pressure) and the
+ * peak growth of used heap while the export runs (live set). With a streaming export the
+ * first grows linearly with the row count while the second should stay roughly flat. Run
+ * it with:
+ * </p>
+ * <pre>
+ * ./mvnw test -Dtest=OwnerCsvExportBenchmarkTests -Dpetclinic.benchmark=true
+ * </pre>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(OwnerCsvExporter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@EnabledIfSystemProperty(named = "petclinic.benchmark", matches = "true")
+class OwnerCsvExportBenchmarkTests {
+
+	private static final String REPORT = "csv export %,d rows: allocated %.1f MB/100k rows, "
+			+ "peak heap growth %.1f MB (%.1f MB/100k rows)%n";
+
+	@Autowired
+	private OwnerCsvExporter exporter;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@ParameterizedTest(name = "{0} owners")
+	@ValueSource(ints = { 100_000, 300_000 })
+	void heapPerHundredThousandRows(int ownerCount) throws Exception {
+		BenchmarkData.seedOwners(this.dataSource, ownerCount);
+		// Warm up Hibernate's query plan cache and the JIT before measuring
+		this.exporter.export("", OutputStream.nullOutputStream());
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		System.gc();
+		long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+		PeakHeapSampler sampler = new PeakHeapSampler(memory);
+		sampler.start();
+
+		long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+		long rows = this.exporter.export("", OutputStream.nullOutputStream());
+		long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+		long peakGrowth = Math.max(0, sampler.stopSampling() - baselineHeap);
+
+		double perHundredThousand = 100_000.0 / rows;
+		System.out.printf(REPORT, rows, allocated * perHundredThousand / 1_048_576, peakGrowth / 1_048_576.0,
+				peakGrowth * perHundredThousand / 1_048_576);
+		assertThat(rows).isGreaterThanOrEqualTo(ownerCount);
+	}
+
+	/**
+	 * Polls used heap on a background thread and remembers the highest value seen.
+	 */
+	private static final class PeakHeapSampler extends Thread {
+
+		private final MemoryMXBean memory;
+
+		private final AtomicBoolean running = new AtomicBoolean(true);
+
+		private final AtomicLong peak = new AtomicLong();
+
+		PeakHeapSampler(MemoryMXBean memory) {
+			super("peak-heap-sampler");
+			setDaemon(true);
+			this.memory = memory;
+		}
+
+		@Override
+		public void run() {
+			while (this.running.get()) {
+				this.peak.accumulateAndGet(this.memory.getHeapMemoryUsage().getUsed(), Math::max);
+				try {
+					Thread.sleep(2);
+				}
+				catch (InterruptedException ex) {
+					return;
+				}
+			}
+		}
+
+		long stopSampling() throws InterruptedException {
+			this.running.set(false);
+			join();
+			return this.peak.get();
+		}
+
+	}
+
+}
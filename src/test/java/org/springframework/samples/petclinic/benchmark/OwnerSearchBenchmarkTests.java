@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Measures p99 latency of the owner search ({@link OwnerRepository#findByFilters}) with
+ * 100k and 1M owners in the database.
+ * <p>
+ * Disabled by default because seeding a million rows takes a while. Run it with:
+ * </p>
+ * <pre>
+ * ./mvnw test -Dtest=OwnerSearchBenchmarkTests -Dpetclinic.benchmark=true
+ * </pre>
+ * <p>
+ * Add {@code -Dspring.profiles.active=mysql} or {@code postgres} to benchmark against a
+ * real database instead of the embedded H2 instance.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@EnabledIfSystemProperty(named = "petclinic.benchmark", matches = "true")
+class OwnerSearchBenchmarkTests {
+
+	private static final int WARMUPS = 50;
+
+	private static final int ITERATIONS = 500;
+
+	private static final Pageable FIRST_PAGE = PageRequest.of(0, 5);
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@ParameterizedTest(name = "{0} owners")
+	@ValueSource(ints = { 100_000, 1_000_000 })
+	void ownerSearchLatency(int ownerCount) {
+		BenchmarkData.seedOwners(this.dataSource, ownerCount);
+
+		double budget = Double.parseDouble(System.getProperty("petclinic.benchmark.owner-search-p99-ms", "250"));
+		LatencyRecorder[] results = {
+				LatencyRecorder.measure("lastName=Da (" + ownerCount + ")", WARMUPS, ITERATIONS,
+						() -> this.owners.findByFilters("Da", null, null, FIRST_PAGE)),
+				LatencyRecorder.measure("lastName=schroder (" + ownerCount + ")", WARMUPS, ITERATIONS,
+						() -> this.owners.findByFilters("schroder", null, null, FIRST_PAGE)),
+				LatencyRecorder.measure("city=Mad (" + ownerCount + ")", WARMUPS, ITERATIONS,
+						() -> this.owners.findByFilters(null, null, "Mad", FIRST_PAGE)),
+				LatencyRecorder.measure("lastName=Vis, city=Ver (" + ownerCount + ")", WARMUPS, ITERATIONS,
+						() -> this.owners.findByFilters("Vis", null, "Ver", FIRST_PAGE)) };
+
+		for (LatencyRecorder result : results) {
+			System.out.println(result.summary());
+			assertThat(result.percentileMillis(99)).as(result.summary()).isLessThan(budget);
+		}
+	}
+
+}
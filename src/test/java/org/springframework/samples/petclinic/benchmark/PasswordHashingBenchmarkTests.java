@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.samples.petclinic.security.BoundedPasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+/**
+ * Measures login password verification at BCrypt strengths 8, 10 and 12, set up like the
+ * application's encoder, with a burst of concurrent logins on a verification pool of half
+ * the available processors. Each measured operation is one burst; the reported throughput
+ * is in logins per second. Use it to pick {@code petclinic.security.password.*} values:
+ * every step of strength doubles the cost of a login.
+ * <p>
+ * Disabled by default. Run it with:
+ * </p>
+ * <pre>
+ * ./mvnw test -Dtest=PasswordHashingBenchmarkTests -Dpetclinic.benchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "petclinic.benchmark", matches = "true")
+class PasswordHashingBenchmarkTests {
+
+	private static final int WARMUPS = 2;
+
+	private static final int ITERATIONS = 10;
+
+	private static final int CONCURRENT_LOGINS = 16;
+
+	@ParameterizedTest(name = "strength {0}")
+	@ValueSource(ints = { 8, 10, 12 })
+	void loginThroughput(int strength) {
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+		DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegating, threads, Duration.ofMinutes(1));
+		String hash = encoder.encode("s3cret-pass");
+		ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_LOGINS);
+		try {
+			LatencyRecorder burst = LatencyRecorder.measure("bcrypt strength " + strength + " x" + CONCURRENT_LOGINS,
+					WARMUPS, ITERATIONS, () -> {
+						List<CompletableFuture<Boolean>> logins = new ArrayList<>();
+						for (int i = 0; i < CONCURRENT_LOGINS; i++) {
+							logins.add(
+									CompletableFuture.supplyAsync(() -> encoder.matches("s3cret-pass", hash), clients));
+						}
+						logins.forEach(login -> assertThat(login.join()).isTrue());
+					});
+			System.out.printf("%s logins=%.1f/s%n", burst.summary(), burst.throughputPerSecond() * CONCURRENT_LOGINS);
+		}
+		finally {
+			clients.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.benchmark;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+/**
+ * Runs the page load test with request handling on platform threads.
+ * <p>
+ * Disabled by default. Run it with:
+ * </p>
+ * <pre>
+ * ./mvnw test -Dtest=PlatformThreadsBenchmarkTests -Dpetclinic.benchmark=true
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=false")
+@EnabledIfSystemProperty(named = "petclinic.benchmark", matches = "true")
+class PlatformThreadsBenchmarkTests extends AbstractThreadingModeBenchmarkTests {
+
+	@Override
+	String mode() {
+		return "platform threads";
+	}
+
+}
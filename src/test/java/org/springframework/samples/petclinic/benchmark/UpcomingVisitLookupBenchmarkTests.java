@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.samples.petclinic.owner.UpcomingVisit;
+import org.springframework.samples.petclinic.owner.VisitRepository;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Compares the chat assistant's upcoming-visit lookups against 1M visits in the coming
+ * year: the former approach of loading the whole year and filtering or truncating it in
+ * Java, and the bounded {@link VisitRepository} queries that filter by owner name and
+ * limit the result in the database.
+ * <p>
+ * Disabled by default. Run it with:
+ * </p>
+ * <pre>
+ * ./mvnw test -Dtest=UpcomingVisitLookupBenchmarkTests -Dpetclinic.benchmark=true
+ * </pre>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@EnabledIfSystemProperty(named = "petclinic.benchmark", matches = "true")
+class UpcomingVisitLookupBenchmarkTests {
+
+	private static final int OWNERS = 100_000;
+
+	private static final int VISITS = 1_000_000;
+
+	private static final int WARMUPS = 3;
+
+	private static final int ITERATIONS = 20;
+
+	private static final String NAME = "frank";
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void visitsForOwnerLookup() {
+		seed();
+		LatencyRecorder inMemory = LatencyRecorder.measure("year + filter in Java", WARMUPS, ITERATIONS,
+				() -> this.visits.findUpcomingVisits(today(), today().plusYears(1))
+					.stream()
+					.filter(visit -> visit.ownerName().toLowerCase().contains(NAME))
+					.limit(20)
+					.toList());
+		LatencyRecorder database = LatencyRecorder.measure("name match + limit", WARMUPS, ITERATIONS, () -> this.visits
+			.findUpcomingVisitsByOwnerName(NAME, today(), today().plusYears(1), PageRequest.of(0, 20)));
+
+		report(inMemory, database);
+	}
+
+	@Test
+	void nextVisitsLookup() {
+		seed();
+		LatencyRecorder inMemory = LatencyRecorder.measure("year + limit in Java", WARMUPS, ITERATIONS,
+				() -> this.visits.findUpcomingVisits(today(), today().plusYears(1)).stream().limit(10).toList());
+		LatencyRecorder database = LatencyRecorder.measure("limit in query", WARMUPS, ITERATIONS,
+				() -> this.visits.findUpcomingVisitSlice(today(), today().plusYears(1), PageRequest.of(0, 10)));
+
+		report(inMemory, database);
+		List<UpcomingVisit> next = this.visits
+			.findUpcomingVisitSlice(today(), today().plusYears(1), PageRequest.of(0, 10))
+			.getContent();
+		assertThat(next).hasSize(10);
+	}
+
+	private void seed() {
+		// seeders top up, so the second test reuses the first test's rows
+		BenchmarkData.seedOwners(this.dataSource, OWNERS);
+		BenchmarkData.seedUpcomingVisits(this.dataSource, VISITS);
+	}
+
+	private static void report(LatencyRecorder inMemory, LatencyRecorder database) {
+		System.out.println(inMemory.summary());
+		System.out.println(database.summary());
+		double budget = Double.parseDouble(System.getProperty("petclinic.benchmark.visit-lookup-p99-ms", "250"));
+		assertThat(database.percentileMillis(99)).as(database.summary()).isLessThan(budget);
+		assertThat(database.percentileMillis(99)).as("bounded query is faster than loading the year")
+			.isLessThan(inMemory.percentileMillis(99));
+	}
+
+	private static LocalDate today() {
+		return LocalDate.now();
+	}
+
+}
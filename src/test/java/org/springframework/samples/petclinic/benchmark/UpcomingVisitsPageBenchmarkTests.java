@@ -0,0 +1,112 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.owner.VisitRepository;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Measures the upcoming-visits dashboard ({@code /visits/upcoming?days=365}) against 10M
+ * visits spread over twenty years: loading the whole year as the page used to, one page
+ * of the year read through the {@code visits_visit_date} index, and the same page with
+ * the index dropped.
+ * <p>
+ * Disabled by default. Seeding 10M rows into the in-memory database needs a few GB of
+ * heap; lower the row count with {@code -Dpetclinic.benchmark.visits}. Run it with:
+ * </p>
+ * <pre>
+ * ./mvnw test -Dtest=UpcomingVisitsPageBenchmarkTests -Dpetclinic.benchmark=true
+ * </pre>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@EnabledIfSystemProperty(named = "petclinic.benchmark", matches = "true")
+class UpcomingVisitsPageBenchmarkTests {
+
+	private static final int OWNERS = 100_000;
+
+	private static final int YEARS = 10;
+
+	private static final int PAGE_SIZE = 50;
+
+	private static final int WARMUPS = 2;
+
+	private static final int ITERATIONS = 10;
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void yearOfUpcomingVisits() {
+		int visitCount = Integer.getInteger("petclinic.benchmark.visits", 10_000_000);
+		BenchmarkData.seedOwners(this.dataSource, OWNERS);
+		BenchmarkData.seedVisitHistory(this.dataSource, visitCount, YEARS);
+		LocalDate today = LocalDate.now();
+		LocalDate endDate = today.plusDays(364);
+
+		LatencyRecorder unpaged = LatencyRecorder.measure("whole year", WARMUPS, ITERATIONS,
+				() -> this.visits.findUpcomingVisits(today, endDate));
+		LatencyRecorder firstPage = LatencyRecorder.measure("first page, indexed", WARMUPS, ITERATIONS,
+				() -> this.visits.findUpcomingVisitSlice(today, endDate, PageRequest.of(0, PAGE_SIZE)));
+		LatencyRecorder laterPage = LatencyRecorder.measure("page 20, indexed", WARMUPS, ITERATIONS,
+				() -> this.visits.findUpcomingVisitSlice(today, endDate, PageRequest.of(19, PAGE_SIZE)));
+		JdbcTemplate jdbc = new JdbcTemplate(this.dataSource);
+		jdbc.execute("DROP INDEX visits_visit_date");
+		LatencyRecorder unindexed;
+		try {
+			unindexed = LatencyRecorder.measure("first page, no date index", WARMUPS, ITERATIONS,
+					() -> this.visits.findUpcomingVisitSlice(today, endDate, PageRequest.of(0, PAGE_SIZE)));
+		}
+		finally {
+			jdbc.execute("CREATE INDEX visits_visit_date ON visits (visit_date, id, pet_id)");
+		}
+
+		System.out.println(unpaged.summary());
+		System.out.println(firstPage.summary());
+		System.out.println(laterPage.summary());
+		System.out.println(unindexed.summary());
+		double budget = Double.parseDouble(System.getProperty("petclinic.benchmark.upcoming-page-p99-ms", "100"));
+		assertThat(firstPage.percentileMillis(99)).as(firstPage.summary()).isLessThan(budget);
+		assertThat(laterPage.percentileMillis(99)).as(laterPage.summary()).isLessThan(budget);
+		assertThat(firstPage.percentileMillis(99)).as("a page is faster than the whole year")
+			.isLessThan(unpaged.percentileMillis(99));
+		assertThat(firstPage.percentileMillis(99)).as("the date index is used")
+			.isLessThan(unindexed.percentileMillis(99));
+	}
+
+}
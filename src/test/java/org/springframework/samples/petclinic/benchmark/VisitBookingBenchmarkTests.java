@@ -0,0 +1,104 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.context.annotation.Import;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.owner.VisitBookingService;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Compares the throughput of booking a visit through {@link VisitBookingService} with the
+ * former approach of adding the visit to the owner aggregate and saving the owner, for
+ * pets with 1, 100 and 10,000 past visits. Each operation includes the owner lookup the
+ * booking request performs.
+ * <p>
+ * Disabled by default. Run it with:
+ * </p>
+ * <pre>
+ * ./mvnw test -Dtest=VisitBookingBenchmarkTests -Dpetclinic.benchmark=true
+ * </pre>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@EnabledIfSystemProperty(named = "petclinic.benchmark", matches = "true")
+@Import(VisitBookingService.class)
+class VisitBookingBenchmarkTests {
+
+	private static final int WARMUPS = 20;
+
+	private static final int ITERATIONS = 200;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private VisitBookingService visitBookings;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@ParameterizedTest(name = "{0} past visits")
+	@ValueSource(ints = { 1, 100, 10_000 })
+	void visitBookingThroughput(int pastVisits) {
+		int directOwnerId = BenchmarkData.seedOwnerWithVisits(this.dataSource, pastVisits);
+		int mergeOwnerId = BenchmarkData.seedOwnerWithVisits(this.dataSource, pastVisits);
+
+		LatencyRecorder direct = LatencyRecorder.measure("direct insert (" + pastVisits + ")", WARMUPS, ITERATIONS,
+				() -> {
+					Owner owner = this.owners.findWithPetsById(directOwnerId).orElseThrow();
+					this.visitBookings.book(owner.getPets().get(0).getId(), newVisit());
+				});
+		LatencyRecorder merge = LatencyRecorder.measure("owner merge (" + pastVisits + ")", WARMUPS, ITERATIONS, () -> {
+			Owner owner = this.owners.findWithPetsAndVisitsById(mergeOwnerId).orElseThrow();
+			owner.addVisit(owner.getPets().get(0).getId(), newVisit());
+			this.owners.save(owner);
+		});
+
+		for (LatencyRecorder result : new LatencyRecorder[] { direct, merge }) {
+			System.out.printf("%s throughput=%.0f/s%n", result.summary(), result.throughputPerSecond());
+		}
+		double budget = Double.parseDouble(System.getProperty("petclinic.benchmark.visit-booking-p99-ms", "50"));
+		assertThat(direct.percentileMillis(99)).as(direct.summary()).isLessThan(budget);
+	}
+
+	private static Visit newVisit() {
+		Visit visit = new Visit();
+		visit.setDate(LocalDate.now().plusDays(7));
+		visit.setDescription("booster");
+		return visit;
+	}
+
+}
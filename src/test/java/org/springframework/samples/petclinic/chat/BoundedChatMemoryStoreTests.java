@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Tests for {@link BoundedChatMemoryStore}.
+ */
+class BoundedChatMemoryStoreTests {
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	@Test
+	void keepsMessagesPerConversation() {
+		BoundedChatMemoryStore store = new BoundedChatMemoryStore(10, Duration.ofMinutes(30));
+
+		store.saveAll("a", List.of(new UserMessage("hello"), new UserMessage("again")));
+		store.saveAll("b", List.of(new UserMessage("hi")));
+
+		assertThat(store.findByConversationId("a")).extracting("text").containsExactly("hello", "again");
+		assertThat(store.findConversationIds()).containsExactlyInAnyOrder("a", "b");
+		assertThat(store.sessionCount()).isEqualTo(2);
+		assertThat(store.messageCount()).isEqualTo(3);
+
+		store.deleteByConversationId("a");
+		assertThat(store.findByConversationId("a")).isEmpty();
+	}
+
+	@Test
+	void evictsConversationsBeyondTheSessionLimit() {
+		BoundedChatMemoryStore store = new BoundedChatMemoryStore(
+				Caffeine.newBuilder().maximumSize(2).executor(Runnable::run));
+
+		for (int i = 0; i < 5; i++) {
+			store.saveAll("session-" + i, List.of(new UserMessage("message " + i)));
+		}
+		store.getConversations().cleanUp();
+
+		assertThat(store.sessionCount()).isEqualTo(2);
+	}
+
+	@Test
+	void evictsIdleConversations() {
+		BoundedChatMemoryStore store = new BoundedChatMemoryStore(Caffeine.newBuilder()
+			.expireAfterAccess(Duration.ofMinutes(30))
+			.ticker(this.nanos::get)
+			.executor(Runnable::run));
+		store.saveAll("idle", List.of(new UserMessage("hello")));
+		store.saveAll("active", List.of(new UserMessage("hello")));
+
+		this.nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+		store.findByConversationId("active");
+		this.nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+
+		assertThat(store.findByConversationId("idle")).isEmpty();
+		assertThat(store.findByConversationId("active")).hasSize(1);
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for {@link ChatAdmissionControl}.
+ */
+class ChatAdmissionControlTests {
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void rejectsSessionBeyondItsBurstUntilTokensRefill() {
+		ChatAdmissionControl control = control(new ChatAdmissionProperties.Rate(2, 60),
+				new ChatAdmissionProperties.Rate(100, 600), 10);
+
+		control.admit("s1", "10.0.0.1").close();
+		control.admit("s1", "10.0.0.1").close();
+		assertRejected(() -> control.admit("s1", "10.0.0.1"), "session");
+		control.admit("s2", "10.0.0.1").close();
+
+		this.nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		control.admit("s1", "10.0.0.1").close();
+	}
+
+	@Test
+	void rejectsAddressBeyondItsBurstAcrossSessions() {
+		ChatAdmissionControl control = control(new ChatAdmissionProperties.Rate(10, 60),
+				new ChatAdmissionProperties.Rate(2, 60), 10);
+
+		control.admit("s1", "10.0.0.1").close();
+		control.admit("s2", "10.0.0.1").close();
+
+		ResponseStatusException rejection = assertRejected(() -> control.admit("s3", "10.0.0.1"), "ip");
+		assertThat(rejection.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		control.admit("s3", "10.0.0.2").close();
+	}
+
+	@Test
+	void rejectsStreamsBeyondTheConcurrencyLimitAfterTheQueueTimeout() {
+		ChatAdmissionControl control = control(new ChatAdmissionProperties.Rate(10, 60),
+				new ChatAdmissionProperties.Rate(10, 60), 1);
+
+		ChatAdmissionControl.Permit first = control.admit("s1", "10.0.0.1");
+		assertRejected(() -> control.admit("s2", "10.0.0.2"), "capacity");
+		assertThat(this.meterRegistry.get("petclinic.chat.admission.active").gauge().value()).isEqualTo(1);
+
+		first.close();
+		first.close();
+		control.admit("s2", "10.0.0.2");
+		assertThat(this.meterRegistry.get("petclinic.chat.admission.active").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectedRequestsDoNotSpendTokens() {
+		ChatAdmissionControl control = control(new ChatAdmissionProperties.Rate(2, 60),
+				new ChatAdmissionProperties.Rate(1, 60), 10);
+
+		control.admit("s1", "10.0.0.1").close();
+		assertRejected(() -> control.admit("s1", "10.0.0.1"), "ip");
+		control.admit("s1", "10.0.0.2").close();
+		assertRejected(() -> control.admit("s1", "10.0.0.3"), "session");
+	}
+
+	@Test
+	void rejectsWithoutWaitingWhenTheQueueIsFull() throws Exception {
+		ChatAdmissionProperties.Rate rate = new ChatAdmissionProperties.Rate(10, 60);
+		ChatAdmissionControl control = new ChatAdmissionControl(
+				new ChatAdmissionProperties(rate, rate, 1, Duration.ofSeconds(30), 1, Duration.ofMinutes(10)),
+				this.meterRegistry, this.nanos::get);
+		ChatAdmissionControl.Permit first = control.admit("s1", "10.0.0.1");
+		CompletableFuture<ChatAdmissionControl.Permit> waiting = CompletableFuture
+			.supplyAsync(() -> control.admit("s2", "10.0.0.2"));
+		Gauge queued = this.meterRegistry.get("petclinic.chat.admission.queued").gauge();
+		while (queued.value() < 1) {
+			Thread.sleep(1);
+		}
+
+		long start = System.nanoTime();
+		assertRejected(() -> control.admit("s3", "10.0.0.3"), "capacity");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+
+		first.close();
+		waiting.get(5, TimeUnit.SECONDS).close();
+	}
+
+	private ChatAdmissionControl control(ChatAdmissionProperties.Rate session, ChatAdmissionProperties.Rate ip,
+			int maxConcurrentStreams) {
+		return new ChatAdmissionControl(new ChatAdmissionProperties(session, ip, maxConcurrentStreams,
+				Duration.ofMillis(10), 10, Duration.ofMinutes(10)), this.meterRegistry, this.nanos::get);
+	}
+
+	private ResponseStatusException assertRejected(Runnable admission, String reason) {
+		Throwable thrown = catchThrowable(admission::run);
+		assertThat(thrown).isInstanceOf(ResponseStatusException.class);
+		ResponseStatusException rejection = (ResponseStatusException) thrown;
+		assertThat(rejection.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(this.meterRegistry.get("petclinic.chat.admission.rejected").tag("reason", reason).counter().count())
+			.isPositive();
+		return rejection;
+	}
+
+}
@@ -37,6 +37,9 @@ class ChatConfigTest {
 	@Autowired
 	private MessageWindowChatMemory chatMemory;
 
+	@Autowired
+	private ChatMemoryStore chatMemoryStore;
+
 	@Test
 	void chatClientBeanExists() {
 		assertThat(chatClient).isNotNull();
@@ -47,4 +50,9 @@ class ChatConfigTest {
 		assertThat(chatMemory).isNotNull();
 	}
 
+	@Test
+	void chatMemoryIsBoundedInMemoryByDefault() {
+		assertThat(chatMemoryStore).isInstanceOf(BoundedChatMemoryStore.class);
+	}
+
 }
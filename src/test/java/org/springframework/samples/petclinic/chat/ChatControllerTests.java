@@ -16,21 +16,29 @@
 
 package org.springframework.samples.petclinic.chat;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.samples.petclinic.security.OwnerAuthenticationSuccessHandler;
 import org.springframework.samples.petclinic.security.UserRepository;
 import org.springframework.samples.petclinic.security.WebMvcTestSecurityConfig;
@@ -39,6 +47,8 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
 
 import reactor.core.publisher.Flux;
 
@@ -61,6 +71,19 @@ class ChatControllerTests {
 	@MockitoBean
 	private OwnerAuthenticationSuccessHandler ownerAuthenticationSuccessHandler;
 
+	@MockitoBean
+	private ChatAdmissionControl admissionControl;
+
+	private final AtomicInteger openPermits = new AtomicInteger();
+
+	@BeforeEach
+	void admitRequests() {
+		given(admissionControl.admit(anyString(), anyString())).willAnswer(invocation -> {
+			openPermits.incrementAndGet();
+			return (ChatAdmissionControl.Permit) openPermits::decrementAndGet;
+		});
+	}
+
 	@Test
 	void validRequest_returns200AndSseContentType() throws Exception {
 		given(chatService.chat(anyString(), anyString(), any())).willReturn(Flux.just("Hello", " world"));
@@ -76,11 +99,42 @@ class ChatControllerTests {
 	void validRequest_responseIsTextEventStream() throws Exception {
 		given(chatService.chat(anyString(), anyString(), any())).willReturn(Flux.just("Hello", " world"));
 
+		// the headers are written with the first event, on the async executor
+		MvcResult result = mockMvc
+			.perform(post("/api/chat").with(csrf())
+				.contentType(APPLICATION_JSON)
+				.content("{\"message\":\"hi\",\"sessionId\":\"s1\"}"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		mockMvc.perform(asyncDispatch(result)).andExpect(content().contentTypeCompatibleWith(TEXT_EVENT_STREAM));
+	}
+
+	@Test
+	void completedStream_releasesItsPermit() throws Exception {
+		given(chatService.chat(anyString(), anyString(), any())).willReturn(Flux.just("Hello", " world"));
+
+		MvcResult result = mockMvc
+			.perform(post("/api/chat").with(csrf())
+				.contentType(APPLICATION_JSON)
+				.content("{\"message\":\"hi\",\"sessionId\":\"s1\"}"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+		assertThat(openPermits).hasValue(0);
+	}
+
+	@Test
+	void rejectedRequest_returns429WithoutCallingTheModel() throws Exception {
+		given(admissionControl.admit(anyString(), anyString()))
+			.willThrow(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS));
+
 		mockMvc
 			.perform(post("/api/chat").with(csrf())
 				.contentType(APPLICATION_JSON)
 				.content("{\"message\":\"hi\",\"sessionId\":\"s1\"}"))
-			.andExpect(content().contentTypeCompatibleWith(TEXT_EVENT_STREAM));
+			.andExpect(status().isTooManyRequests());
+		verifyNoInteractions(chatService);
 	}
 
 	@Test
@@ -101,6 +155,15 @@ class ChatControllerTests {
 			.andExpect(status().isBadRequest());
 	}
 
+	@Test
+	void oversizedSessionId_returns400() throws Exception {
+		mockMvc
+			.perform(post("/api/chat").with(csrf())
+				.contentType(APPLICATION_JSON)
+				.content("{\"message\":\"hi\",\"sessionId\":\"" + "s".repeat(65) + "\"}"))
+			.andExpect(status().isBadRequest());
+	}
+
 	@Test
 	@WithAnonymousUser
 	void unauthenticatedRequest_returns401() throws Exception {
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.metadata.EmptyUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.VetsChangedEvent;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Flux;
+
+/**
+ * Tests for {@link ChatService}, its {@link ChatResponseCache} and {@link ChatMetrics},
+ * against a local stand-in {@link ChatModel} that counts the round trips.
+ */
+class ChatServiceTests {
+
+	private final CountingChatModel model = new CountingChatModel("We are open Monday to Friday, 8am to 6pm.");
+
+	private final MessageWindowChatMemory memory = MessageWindowChatMemory.builder()
+		.chatMemoryRepository(new InMemoryChatMemoryRepository())
+		.maxMessages(20)
+		.build();
+
+	private final ChatResponseCache responseCache = new ChatResponseCache(
+			new ConcurrentMapCache(ChatResponseCache.CACHE_NAME), new ConcurrentMapCache(ChatTools.CACHE_NAME));
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private ChatService chatService;
+
+	@BeforeEach
+	void setup() {
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig()
+			.observationHandler(new DefaultMeterObservationHandler(this.meterRegistry));
+		this.chatService = new ChatService(ChatClient.builder(this.model).build(), this.memory, this.responseCache,
+				new ChatMetrics(this.meterRegistry, observationRegistry));
+	}
+
+	@AfterEach
+	void clearSecurityContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void repeatedQuestionIsReplayedFromTheCache() {
+		String first = answer("s1", "What are your hours?");
+		String second = answer("s2", "what are the HOURS");
+
+		assertThat(second).isEqualTo(first).isEqualTo("We are open Monday to Friday, 8am to 6pm.");
+		assertThat(this.model.calls).hasValue(1);
+		assertThat(this.memory.get("s2")).extracting(Message::getText)
+			.containsExactly("what are the HOURS", "We are open Monday to Friday, 8am to 6pm.");
+	}
+
+	@Test
+	void adminAndAnonymousAnswersAreCachedSeparately() {
+		answer("s1", "What are your hours?");
+		authenticate("ROLE_ADMIN");
+		answer("s2", "What are your hours?");
+		answer("s3", "What are your hours?");
+
+		assertThat(this.model.calls).hasValue(2);
+	}
+
+	@Test
+	void adminAnswersAreOnlySharedForTheSameUserContext() {
+		authenticate("ROLE_ADMIN");
+		answer("s1", "What are your hours?", "The current user is Ada (role: ADMIN).");
+		answer("s2", "What are your hours?", "The current user is Ada (role: ADMIN).");
+		answer("s3", "What are your hours?", "The current user is Grace (role: ADMIN).");
+
+		assertThat(this.model.calls).hasValue(2);
+	}
+
+	@Test
+	void answersThatCalledAToolAreNotCached() {
+		this.model.callTool = true;
+		answer("s1", "When is my next visit?");
+		answer("s2", "When is my next visit?");
+
+		assertThat(this.model.calls).hasValue(2);
+	}
+
+	@Test
+	void ownerAnswersAreNeverCached() {
+		authenticate("ROLE_OWNER");
+		answer("s1", "What are your hours?");
+		answer("s2", "What are your hours?");
+
+		assertThat(this.model.calls).hasValue(2);
+	}
+
+	@Test
+	void followUpQuestionsAlwaysReachTheModel() {
+		answer("s1", "Hello");
+		answer("s1", "What are your hours?");
+		answer("s1", "What are your hours?");
+
+		assertThat(this.model.calls).hasValue(3);
+	}
+
+	@Test
+	void vetChangesEvictCachedAnswers() {
+		answer("s1", "Which vets handle dentistry?");
+		this.responseCache.onVetsChanged(new VetsChangedEvent(new Vet()));
+		answer("s2", "Which vets handle dentistry?");
+
+		assertThat(this.model.calls).hasValue(2);
+	}
+
+	@Test
+	void modelAnswersRecordLatencyAndTokens() {
+		answer("s1", "Hello");
+		answer("s1", "What are your hours?");
+
+		assertThat(this.meterRegistry.get("petclinic.chat.stream").tag("source", "model").timer().count()).isEqualTo(2);
+		assertThat(this.meterRegistry.get("petclinic.chat.first.token").tag("source", "model").timer().count())
+			.isEqualTo(2);
+		assertThat(this.meterRegistry.get("petclinic.chat.tokens").tag("direction", "input").summary().totalAmount())
+			.isEqualTo(2 * CountingChatModel.INPUT_TOKENS);
+		assertThat(this.meterRegistry.get("petclinic.chat.tokens").tag("direction", "output").summary().totalAmount())
+			.isEqualTo(2 * CountingChatModel.OUTPUT_TOKENS);
+		DistributionSummary window = this.meterRegistry.get("petclinic.chat.memory.window").summary();
+		assertThat(window.count()).isEqualTo(2);
+		assertThat(window.max()).isEqualTo(2);
+		assertThat(this.meterRegistry.get("petclinic.chat.memory.load").timer().count()).isEqualTo(2);
+	}
+
+	@Test
+	void cachedAnswersAreTimedWithoutTokens() {
+		answer("s1", "What are your hours?");
+		answer("s2", "What are your hours?");
+
+		assertThat(this.meterRegistry.get("petclinic.chat.stream").tag("source", "cache").timer().count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("petclinic.chat.tokens").tag("direction", "output").summary().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void normalizationIgnoresFillerWordsPunctuationAndPlurals() {
+		assertThat(ChatResponseCache.normalize("Which vets handle dentistry?"))
+			.isEqualTo(ChatResponseCache.normalize("vet: handle DENTISTRY"));
+		assertThat(ChatResponseCache.normalize("Do dogs chase cats?"))
+			.isNotEqualTo(ChatResponseCache.normalize("Do cats chase dogs?"));
+		assertThat(ChatResponseCache.normalize("Do you treat cats?"))
+			.isNotEqualTo(ChatResponseCache.normalize("Do you treat dogs?"));
+	}
+
+	private String answer(String sessionId, String question) {
+		return answer(sessionId, question, null);
+	}
+
+	private String answer(String sessionId, String question, String userContext) {
+		return String.join("", this.chatService.chat(sessionId, question, userContext).collectList().block());
+	}
+
+	private static void authenticate(String authority) {
+		SecurityContextHolder.getContext()
+			.setAuthentication(new UsernamePasswordAuthenticationToken("user@petclinic.com", null,
+					List.of(new SimpleGrantedAuthority(authority))));
+	}
+
+	/**
+	 * Answers every prompt with the same text, streamed word by word, and reports a fixed
+	 * token usage with the last word. Optionally calls a tool first, as a model answering
+	 * from live data would.
+	 */
+	private static final class CountingChatModel implements ChatModel {
+
+		static final int INPUT_TOKENS = 120;
+
+		static final int OUTPUT_TOKENS = 12;
+
+		private final String answer;
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private boolean callTool;
+
+		CountingChatModel(String answer) {
+			this.answer = answer;
+		}
+
+		@Override
+		public org.springframework.ai.chat.model.ChatResponse call(Prompt prompt) {
+			this.calls.incrementAndGet();
+			return response(this.answer, true);
+		}
+
+		@Override
+		public Flux<org.springframework.ai.chat.model.ChatResponse> stream(Prompt prompt) {
+			this.calls.incrementAndGet();
+			if (this.callTool) {
+				ToolCallback tool = new RecordingToolCallback(
+						FunctionToolCallback.builder("getUpcomingVisits", (String input) -> "[]")
+							.inputType(String.class)
+							.build());
+				tool.call("\"\"", new ToolContext(((ToolCallingChatOptions) prompt.getOptions()).getToolContext()));
+			}
+			String[] words = this.answer.split("(?<= )");
+			return Flux.range(0, words.length).map(i -> response(words[i], i == words.length - 1));
+		}
+
+		private static org.springframework.ai.chat.model.ChatResponse response(String text, boolean last) {
+			ChatResponseMetadata metadata = ChatResponseMetadata.builder()
+				.usage(last ? new DefaultUsage(INPUT_TOKENS, OUTPUT_TOKENS) : new EmptyUsage())
+				.build();
+			return org.springframework.ai.chat.model.ChatResponse.builder()
+				.generations(List.of(new Generation(AssistantMessage.builder().content(text).build())))
+				.metadata(metadata)
+				.build();
+		}
+
+	}
+
+}
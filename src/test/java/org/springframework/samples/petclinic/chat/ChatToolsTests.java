@@ -19,6 +19,8 @@ package org.springframework.samples.petclinic.chat;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -29,13 +31,17 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.samples.petclinic.owner.Owner;
 import org.springframework.samples.petclinic.owner.PetType;
-import org.springframework.samples.petclinic.owner.PetTypeRepository;
+import org.springframework.samples.petclinic.owner.PetTypeRegistry;
 import org.springframework.samples.petclinic.owner.UpcomingVisit;
+import org.springframework.samples.petclinic.owner.VisitCalendar;
 import org.springframework.samples.petclinic.owner.VisitRepository;
 import org.springframework.samples.petclinic.security.Role;
 import org.springframework.samples.petclinic.security.User;
@@ -48,6 +54,10 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class ChatToolsTests {
 
@@ -55,19 +65,27 @@ class ChatToolsTests {
 	private VetRepository vetRepository;
 
 	@Mock
-	private PetTypeRepository petTypeRepository;
+	private PetTypeRegistry petTypes;
 
 	@Mock
 	private VisitRepository visitRepository;
 
+	@Mock
+	private VisitCalendar visitCalendar;
+
 	@Mock
 	private UserRepository userRepository;
 
-	@InjectMocks
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
 	private ChatTools chatTools;
 
 	@BeforeEach
 	void injectClinicInfo() {
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+		chatTools = new ChatTools(vetRepository, petTypes, visitRepository, visitCalendar, userRepository,
+				new ConcurrentMapCache(ChatTools.CACHE_NAME), new ChatMetrics(meterRegistry, observationRegistry));
 		ReflectionTestUtils.setField(chatTools, "clinicInfo", "Test clinic info");
 	}
 
@@ -149,6 +167,26 @@ class ChatToolsTests {
 		assertThat(result.get(0).name()).isEqualTo("James Carter");
 	}
 
+	@Test
+	void vetTools_shareOneDirectoryLoad() {
+		Specialty surgery = new Specialty();
+		surgery.setName("surgery");
+		Vet surgeon = new Vet();
+		surgeon.setFirstName("James");
+		surgeon.setLastName("Carter");
+		surgeon.addSpecialty(surgery);
+
+		when(vetRepository.findAll()).thenReturn(List.of(surgeon));
+
+		chatTools.getVeterinarians();
+		chatTools.getVetsBySpecialty("surgery");
+		List<VetSummary> result = chatTools.getVetsBySpecialty("Surgery");
+
+		assertThat(result).extracting(VetSummary::name).containsExactly("James Carter");
+		assertThat(chatTools.getVetsBySpecialty("radiology")).isEmpty();
+		verify(vetRepository, times(1)).findAll();
+	}
+
 	// ---------------------------------------------------------------------------
 	// getPetTypes
 	// ---------------------------------------------------------------------------
@@ -160,7 +198,7 @@ class ChatToolsTests {
 		PetType cat = new PetType();
 		cat.setName("cat");
 
-		when(petTypeRepository.findAll()).thenReturn(List.of(dog, cat));
+		when(petTypes.findAll()).thenReturn(List.of(dog, cat));
 
 		List<String> result = chatTools.getPetTypes();
 
@@ -173,12 +211,12 @@ class ChatToolsTests {
 
 	@Test
 	void getUpcomingVisitsForOwner_returnsMatchingVisits() {
-		UpcomingVisit franklin = new UpcomingVisit(1, "George Franklin", "Max", LocalDate.of(2026, 3, 1),
+		UpcomingVisit franklin = new UpcomingVisit(1, 1, "George Franklin", "Max", LocalDate.of(2026, 3, 1),
 				"Annual checkup");
-		UpcomingVisit davis = new UpcomingVisit(2, "Betty Davis", "Whiskers", LocalDate.of(2026, 3, 5), "Vaccination");
 
-		when(visitRepository.findUpcomingVisits(any(LocalDate.class), any(LocalDate.class)))
-			.thenReturn(List.of(franklin, davis));
+		when(visitRepository.findUpcomingVisitsByOwnerName(eq("franklin"), any(LocalDate.class), any(LocalDate.class),
+				any(Pageable.class)))
+			.thenReturn(List.of(franklin));
 
 		List<VisitSummary> result = chatTools.getUpcomingVisitsForOwner("Franklin");
 
@@ -206,16 +244,19 @@ class ChatToolsTests {
 	// ---------------------------------------------------------------------------
 
 	@Test
-	void getUpcomingVisits_returnsAtMostTen() {
-		List<UpcomingVisit> manyVisits = java.util.stream.IntStream.rangeClosed(1, 15)
-			.mapToObj(i -> new UpcomingVisit(i, "Owner " + i, "Pet " + i, LocalDate.of(2026, 3, i), "Visit " + i))
+	void getUpcomingVisits_requestsAtMostTen() {
+		List<UpcomingVisit> tenVisits = java.util.stream.IntStream.rangeClosed(1, 10)
+			.mapToObj(i -> new UpcomingVisit(i, i, "Owner " + i, "Pet " + i, LocalDate.of(2026, 3, i), "Visit " + i))
 			.toList();
+		ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
 
-		when(visitRepository.findUpcomingVisits(any(LocalDate.class), any(LocalDate.class))).thenReturn(manyVisits);
+		when(visitCalendar.findUpcomingVisits(any(LocalDate.class), any(LocalDate.class), page.capture()))
+			.thenReturn(new SliceImpl<>(tenVisits));
 
 		List<VisitSummary> result = chatTools.getUpcomingVisits();
 
 		assertThat(result).hasSize(10);
+		assertThat(page.getValue().getPageSize()).isEqualTo(10);
 	}
 
 	// ---------------------------------------------------------------------------
@@ -227,6 +268,14 @@ class ChatToolsTests {
 		assertThat(chatTools.getClinicInfo()).isEqualTo("Test clinic info");
 	}
 
+	@Test
+	void toolCalls_areTimedPerTool() {
+		chatTools.getClinicInfo();
+		chatTools.getClinicInfo();
+
+		assertThat(meterRegistry.get("petclinic.chat.tool").tag("tool", "getClinicInfo").timer().count()).isEqualTo(2);
+	}
+
 	// ---------------------------------------------------------------------------
 	// Security-aware getUpcomingVisits
 	// ---------------------------------------------------------------------------
@@ -235,7 +284,8 @@ class ChatToolsTests {
 	void getUpcomingVisits_ownerContext_returnsOnlyOwnerVisits() {
 		setOwnerSecurityContext("george.franklin@petclinic.com", 1);
 
-		UpcomingVisit georgeVisit = new UpcomingVisit(1, "George Franklin", "Leo", LocalDate.of(2026, 3, 1), "checkup");
+		UpcomingVisit georgeVisit = new UpcomingVisit(3, 1, "George Franklin", "Leo", LocalDate.of(2026, 3, 1),
+				"checkup");
 		when(visitRepository.findUpcomingVisitsByOwnerId(eq(1), any(LocalDate.class), any(LocalDate.class)))
 			.thenReturn(List.of(georgeVisit));
 
@@ -249,21 +299,46 @@ class ChatToolsTests {
 	void getUpcomingVisits_adminContext_returnsAllVisits() {
 		setAdminSecurityContext("admin@petclinic.com");
 
-		UpcomingVisit georgeVisit = new UpcomingVisit(1, "George Franklin", "Leo", LocalDate.of(2026, 3, 1), "checkup");
-		UpcomingVisit jeanVisit = new UpcomingVisit(6, "Jean Coleman", "Samantha", LocalDate.of(2026, 3, 2), "shots");
-		when(visitRepository.findUpcomingVisits(any(LocalDate.class), any(LocalDate.class)))
-			.thenReturn(List.of(georgeVisit, jeanVisit));
+		UpcomingVisit georgeVisit = new UpcomingVisit(4, 1, "George Franklin", "Leo", LocalDate.of(2026, 3, 1),
+				"checkup");
+		UpcomingVisit jeanVisit = new UpcomingVisit(5, 6, "Jean Coleman", "Samantha", LocalDate.of(2026, 3, 2),
+				"shots");
+		when(visitCalendar.findUpcomingVisits(any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+			.thenReturn(new SliceImpl<>(List.of(georgeVisit, jeanVisit)));
 
 		List<VisitSummary> result = chatTools.getUpcomingVisits();
 
 		assertThat(result).hasSize(2);
 	}
 
+	@Test
+	void getUpcomingVisits_cachedResultsAreScopedToTheOwner() {
+		UpcomingVisit georgeVisit = new UpcomingVisit(6, 1, "George Franklin", "Leo", LocalDate.of(2026, 3, 1),
+				"checkup");
+		UpcomingVisit jeanVisit = new UpcomingVisit(7, 6, "Jean Coleman", "Samantha", LocalDate.of(2026, 3, 2),
+				"shots");
+		when(visitRepository.findUpcomingVisitsByOwnerId(eq(1), any(LocalDate.class), any(LocalDate.class)))
+			.thenReturn(List.of(georgeVisit));
+		when(visitCalendar.findUpcomingVisits(any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+			.thenReturn(new SliceImpl<>(List.of(georgeVisit, jeanVisit)));
+
+		setAdminSecurityContext("admin@petclinic.com");
+		assertThat(chatTools.getUpcomingVisits()).hasSize(2);
+
+		setOwnerSecurityContext("george.franklin@petclinic.com", 1);
+		assertThat(chatTools.getUpcomingVisits()).extracting(VisitSummary::ownerName)
+			.containsExactly("George Franklin");
+		assertThat(chatTools.getUpcomingVisits()).hasSize(1);
+		verify(visitRepository, times(1)).findUpcomingVisitsByOwnerId(eq(1), any(LocalDate.class),
+				any(LocalDate.class));
+	}
+
 	@Test
 	void getUpcomingVisitsForOwner_ownerContext_ignoresOwnerParamAndReturnsOwnVisits() {
 		setOwnerSecurityContext("george.franklin@petclinic.com", 1);
 
-		UpcomingVisit georgeVisit = new UpcomingVisit(1, "George Franklin", "Leo", LocalDate.of(2026, 3, 1), "checkup");
+		UpcomingVisit georgeVisit = new UpcomingVisit(8, 1, "George Franklin", "Leo", LocalDate.of(2026, 3, 1),
+				"checkup");
 		when(visitRepository.findUpcomingVisitsByOwnerId(eq(1), any(LocalDate.class), any(LocalDate.class)))
 			.thenReturn(List.of(georgeVisit));
 
@@ -277,10 +352,11 @@ class ChatToolsTests {
 	void getUpcomingVisitsForOwner_adminContext_usesOwnerNameFilter() {
 		setAdminSecurityContext("admin@petclinic.com");
 
-		UpcomingVisit georgeVisit = new UpcomingVisit(1, "George Franklin", "Leo", LocalDate.of(2026, 3, 1), "checkup");
-		UpcomingVisit jeanVisit = new UpcomingVisit(6, "Jean Coleman", "Samantha", LocalDate.of(2026, 3, 2), "shots");
-		when(visitRepository.findUpcomingVisits(any(LocalDate.class), any(LocalDate.class)))
-			.thenReturn(List.of(georgeVisit, jeanVisit));
+		UpcomingVisit jeanVisit = new UpcomingVisit(9, 6, "Jean Coleman", "Samantha", LocalDate.of(2026, 3, 2),
+				"shots");
+		when(visitRepository.findUpcomingVisitsByOwnerName(eq("coleman"), any(LocalDate.class), any(LocalDate.class),
+				any(Pageable.class)))
+			.thenReturn(List.of(jeanVisit));
 
 		List<VisitSummary> result = chatTools.getUpcomingVisitsForOwner("Coleman");
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for {@link JdbcChatMemoryStore} against the {@code chat_messages}
+ * table.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+class JdbcChatMemoryStoreTests {
+
+	private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private JdbcChatMemoryStore store;
+
+	@BeforeEach
+	void setup() {
+		this.store = storeAt(NOW);
+	}
+
+	@Test
+	void shouldRoundTripConversationInOrder() {
+		this.store.saveAll("s1", List.of(new UserMessage("Which vets see birds?"),
+				AssistantMessage.builder().content("Dr. Ortega.").build()));
+
+		List<Message> messages = this.store.findByConversationId("s1");
+
+		assertThat(messages).extracting(Message::getMessageType)
+			.containsExactly(MessageType.USER, MessageType.ASSISTANT);
+		assertThat(messages).extracting(Message::getText).containsExactly("Which vets see birds?", "Dr. Ortega.");
+		assertThat(this.store.findConversationIds()).containsExactly("s1");
+	}
+
+	@Test
+	void shouldReplaceTheWindowOnSave() {
+		this.store.saveAll("s1", List.of(new UserMessage("one"), new UserMessage("two")));
+		this.store.saveAll("s1", List.of(new UserMessage("two"), new UserMessage("three")));
+
+		assertThat(this.store.findByConversationId("s1")).extracting(Message::getText).containsExactly("two", "three");
+	}
+
+	@Test
+	void shouldPurgeIdleConversations() {
+		storeAt(NOW.minus(Duration.ofHours(1))).saveAll("idle", List.of(new UserMessage("hello")));
+		this.store.saveAll("active", List.of(new UserMessage("hello")));
+
+		this.store.purge();
+
+		assertThat(this.store.findConversationIds()).containsExactly("active");
+		assertThat(this.store.sessionCount()).isEqualTo(1);
+		assertThat(this.store.messageCount()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldPurgeLeastRecentlyActiveConversationsBeyondTheLimit() {
+		for (int i = 0; i < 4; i++) {
+			storeAt(NOW.minus(Duration.ofMinutes(4 - i))).saveAll("s" + i, List.of(new UserMessage("hello")));
+		}
+
+		this.store.purge();
+
+		assertThat(this.store.findConversationIds()).containsExactlyInAnyOrder("s2", "s3");
+	}
+
+	private JdbcChatMemoryStore storeAt(Instant instant) {
+		return new JdbcChatMemoryStore(this.jdbcTemplate, this.transactionManager, 2, Duration.ofMinutes(30),
+				Clock.fixed(instant, ZoneOffset.UTC));
+	}
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.samples.petclinic.security.OwnerAuthenticationSuccessHandler;
+import org.springframework.samples.petclinic.security.Role;
+import org.springframework.samples.petclinic.security.User;
+import org.springframework.samples.petclinic.security.UserRepository;
+import org.springframework.samples.petclinic.security.WebMvcTestSecurityConfig;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Test class for {@link OwnerApiController}
+ */
+@WebMvcTest(OwnerApiController.class)
+@DisabledInNativeImage
+@DisabledInAotMode
+@WithMockUser(roles = "ADMIN")
+@Import(WebMvcTestSecurityConfig.class)
+class OwnerApiControllerTests {
+
+	private static final OwnerSummary GEORGE = new OwnerSummary(1, "George", "Franklin", "110 W. Liberty St.",
+			"Madison", "6085551023");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private OwnerRepository owners;
+
+	@MockitoBean
+	private VisitRepository visits;
+
+	@MockitoBean
+	private UserRepository userRepository;
+
+	@MockitoBean
+	private OwnerAuthenticationSuccessHandler ownerAuthenticationSuccessHandler;
+
+	@Test
+	void testListOwners() throws Exception {
+		given(this.owners.findSummariesByLastNameStartingWith(any(), any()))
+			.willReturn(new SliceImpl<>(List.of(GEORGE)));
+
+		mockMvc.perform(get("/api/v1/owners").param("lastName", "Frank"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+			.andExpect(jsonPath("$.owners[0].lastName").value("Franklin"))
+			.andExpect(jsonPath("$.owners[0].telephone").value("6085551023"))
+			.andExpect(jsonPath("$.page").value(1))
+			.andExpect(jsonPath("$.hasNext").value(false));
+	}
+
+	@Test
+	void testListOwnersWithSelectedFields() throws Exception {
+		given(this.owners.findSummariesByLastNameStartingWith(any(), any()))
+			.willReturn(new SliceImpl<>(List.of(GEORGE)));
+
+		mockMvc.perform(get("/api/v1/owners").param("fields", "id,lastName"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.owners[0].id").value(1))
+			.andExpect(jsonPath("$.owners[0].lastName").value("Franklin"))
+			.andExpect(jsonPath("$.owners[0].city").doesNotExist());
+	}
+
+	@Test
+	void testListOwnersWithUnknownField() throws Exception {
+		given(this.owners.findSummariesByLastNameStartingWith(any(), any()))
+			.willReturn(new SliceImpl<>(List.of(GEORGE)));
+
+		mockMvc.perform(get("/api/v1/owners").param("fields", "id,password")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testShowOwnerWithPets() throws Exception {
+		given(this.owners.findSummaryById(1)).willReturn(Optional.of(GEORGE));
+		given(this.owners.findPetSummariesByOwnerId(1))
+			.willReturn(List.of(new PetSummary(1, "Leo", LocalDate.of(2010, 9, 7), "cat")));
+
+		mockMvc.perform(get("/api/v1/owners/1"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+			.andExpect(jsonPath("$.pets[0].name").value("Leo"))
+			.andExpect(jsonPath("$.pets[0].type").value("cat"));
+	}
+
+	@Test
+	void testShowOwnerWithoutPetsSkipsPetQuery() throws Exception {
+		given(this.owners.findSummaryById(1)).willReturn(Optional.of(GEORGE));
+
+		mockMvc.perform(get("/api/v1/owners/1").param("fields", "firstName,lastName"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.lastName").value("Franklin"))
+			.andExpect(jsonPath("$.pets").doesNotExist());
+
+		verify(this.owners, never()).findPetSummariesByOwnerId(any());
+	}
+
+	@Test
+	void testShowUnknownOwner() throws Exception {
+		given(this.owners.findSummaryById(99)).willReturn(Optional.empty());
+
+		mockMvc.perform(get("/api/v1/owners/99")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void testListVisits() throws Exception {
+		given(this.visits.findSummariesByOwnerIdAndPetId(6, 7))
+			.willReturn(List.of(new VisitSummary(4, LocalDate.of(2013, 1, 4), "spayed")));
+
+		mockMvc.perform(get("/api/v1/owners/6/pets/7/visits"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].description").value("spayed"))
+			.andExpect(jsonPath("$[0].date").value("2013-01-04"));
+	}
+
+	@Test
+	void testListVisitsOfPetOfAnotherOwner() throws Exception {
+		given(this.visits.findSummariesByOwnerIdAndPetId(1, 7)).willReturn(List.of());
+		given(this.owners.existsPet(1, 7)).willReturn(false);
+
+		mockMvc.perform(get("/api/v1/owners/1/pets/7/visits")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	@WithMockUser(username = "george.franklin@petclinic.com", roles = "OWNER")
+	void testOwnerRoleUserCannotReadOtherOwners() throws Exception {
+		User georgeUser = new User();
+		georgeUser.setEmail("george.franklin@petclinic.com");
+		georgeUser.setRole(Role.OWNER);
+		Owner george = new Owner();
+		george.setId(1);
+		georgeUser.setOwner(george);
+		given(this.userRepository.findByEmail("george.franklin@petclinic.com")).willReturn(Optional.of(georgeUser));
+		given(this.owners.findSummaryById(1)).willReturn(Optional.of(GEORGE));
+
+		mockMvc.perform(get("/api/v1/owners/6")).andExpect(status().isForbidden());
+		mockMvc.perform(get("/api/v1/owners"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.owners[0].id").value(1))
+			.andExpect(jsonPath("$.owners.length()").value(1));
+		verify(this.owners, never()).findSummariesByLastNameStartingWith(any(), any());
+	}
+
+	@Test
+	@WithAnonymousUser
+	void testAnonymousUserIsUnauthorized() throws Exception {
+		mockMvc.perform(get("/api/v1/owners")).andExpect(status().isUnauthorized());
+	}
+
+}
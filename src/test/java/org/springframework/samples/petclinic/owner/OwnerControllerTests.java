@@ -25,15 +25,26 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.greaterThan;
@@ -46,18 +57,25 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import org.springframework.samples.petclinic.security.PetClinicUser;
 import org.springframework.samples.petclinic.security.Role;
 import org.springframework.samples.petclinic.security.User;
+import org.springframework.samples.petclinic.security.UserAccount;
 import org.springframework.context.annotation.Import;
 import org.springframework.samples.petclinic.security.OwnerAuthenticationSuccessHandler;
 import org.springframework.samples.petclinic.security.UserRepository;
@@ -74,7 +92,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 @DisabledInNativeImage
 @DisabledInAotMode
 @WithMockUser
-@Import(WebMvcTestSecurityConfig.class)
+@Import({ WebMvcTestSecurityConfig.class, OwnerCsvExporter.class, OwnerResolver.class })
 class OwnerControllerTests {
 
 	private static final int TEST_OWNER_ID = 1;
@@ -122,6 +140,7 @@ class OwnerControllerTests {
 			.willReturn(new PageImpl<>(List.of(george)));
 
 		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(george));
+		given(this.owners.findWithPetsAndVisitsById(TEST_OWNER_ID)).willReturn(Optional.of(george));
 
 		given(this.owners.findByFirstNameIgnoreCaseAndLastNameIgnoreCaseAndTelephone(anyString(), anyString(),
 				anyString()))
@@ -371,6 +390,90 @@ class OwnerControllerTests {
 			.andExpect(content().string(containsString("city=Mad")));
 	}
 
+	private Owner betty() {
+		Owner betty = new Owner();
+		betty.setId(2);
+		betty.setFirstName("Betty");
+		betty.setLastName("Davis");
+		betty.setAddress("638 Cardinal Ave.");
+		betty.setCity("Sun Prairie");
+		betty.setTelephone("6085551749");
+		return betty;
+	}
+
+	@Test
+	void testKeysetFirstPageRendersNextCursorOnly() throws Exception {
+		Slice<Owner> slice = new SliceImpl<>(List.of(george(), betty()), Pageable.ofSize(5), true);
+		when(this.owners.findByFilters(any(), any(), any(), isNull(), eq(5))).thenReturn(slice);
+
+		mockMvc.perform(get("/owners").param("cursor", ""))
+			.andExpect(status().isOk())
+			.andExpect(view().name("owners/ownersList"))
+			.andExpect(model().attribute("keyset", true))
+			.andExpect(model().attribute("listOwners", hasSize(2)))
+			.andExpect(model().attribute("previousCursor", nullValue()))
+			.andExpect(model().attribute("nextCursor", OwnerCursor.after(betty()).encode()))
+			.andExpect(content().string(containsString("cursor=")));
+
+		verify(this.owners, never()).findByFilters(any(), any(), any(), any(Pageable.class));
+	}
+
+	@Test
+	void testKeysetCursorIsDecodedAndPassedToRepository() throws Exception {
+		OwnerCursor cursor = new OwnerCursor("coleman", 6, false);
+		Slice<Owner> slice = new SliceImpl<>(List.of(george(), betty()), Pageable.ofSize(5), false);
+		when(this.owners.findByFilters(eq("Franklin"), any(), any(), eq(cursor), eq(5))).thenReturn(slice);
+
+		mockMvc.perform(get("/owners").param("cursor", cursor.encode()).param("lastName", "Franklin"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("previousCursor", OwnerCursor.before(george()).encode()))
+			.andExpect(model().attribute("nextCursor", nullValue()))
+			.andExpect(content().string(containsString("lastName=Franklin")));
+	}
+
+	@Test
+	void testKeysetBackwardCursorAlwaysOffersNextPage() throws Exception {
+		OwnerCursor cursor = new OwnerCursor("coleman", 6, true);
+		Slice<Owner> slice = new SliceImpl<>(List.of(george(), betty()), Pageable.ofSize(5), false);
+		when(this.owners.findByFilters(any(), any(), any(), eq(cursor), eq(5))).thenReturn(slice);
+
+		mockMvc.perform(get("/owners").param("cursor", cursor.encode()))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("previousCursor", nullValue()))
+			.andExpect(model().attribute("nextCursor", OwnerCursor.after(betty()).encode()));
+	}
+
+	@Test
+	void testKeysetMalformedCursorRestartsFromFirstPage() throws Exception {
+		Slice<Owner> slice = new SliceImpl<>(List.of(george(), betty()), Pageable.ofSize(5), true);
+		when(this.owners.findByFilters(any(), any(), any(), isNull(), eq(5))).thenReturn(slice);
+
+		mockMvc.perform(get("/owners").param("cursor", "not a cursor"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("previousCursor", nullValue()));
+	}
+
+	@Test
+	void testKeysetSingleResultOnFirstPageRedirects() throws Exception {
+		Slice<Owner> slice = new SliceImpl<>(List.of(george()), Pageable.ofSize(5), false);
+		when(this.owners.findByFilters(any(), any(), any(), isNull(), eq(5))).thenReturn(slice);
+
+		mockMvc.perform(get("/owners").param("cursor", ""))
+			.andExpect(status().is3xxRedirection())
+			.andExpect(view().name("redirect:/owners/" + TEST_OWNER_ID));
+	}
+
+	@Test
+	void testKeysetFewResultsOnFirstPageAreListed() throws Exception {
+		Slice<Owner> slice = new SliceImpl<>(List.of(george(), betty()), Pageable.ofSize(5), false);
+		when(this.owners.findByFilters(any(), any(), any(), isNull(), eq(5))).thenReturn(slice);
+
+		mockMvc.perform(get("/owners").param("cursor", ""))
+			.andExpect(status().isOk())
+			.andExpect(view().name("owners/ownersList"))
+			.andExpect(model().attribute("listOwners", hasSize(2)));
+	}
+
 	@Test
 	void testInitUpdateOwnerForm() throws Exception {
 		mockMvc.perform(get("/owners/{ownerId}/edit", TEST_OWNER_ID))
@@ -434,6 +537,14 @@ class OwnerControllerTests {
 			.andExpect(view().name("owners/ownerDetails"));
 	}
 
+	@Test
+	void testShowOwnerLoadsOwnerOnce() throws Exception {
+		mockMvc.perform(get("/owners/{ownerId}", TEST_OWNER_ID)).andExpect(status().isOk());
+
+		verify(this.owners).findWithPetsAndVisitsById(TEST_OWNER_ID);
+		verify(this.owners, never()).findById(TEST_OWNER_ID);
+	}
+
 	@Test
 	void testProcessUpdateOwnerFormDuplicateOwner() throws Exception {
 		// Arrange: a second, different owner already has the target name+telephone
@@ -508,19 +619,27 @@ class OwnerControllerTests {
 
 	@Test
 	void testShowNonExistentOwner() throws Exception {
-		given(this.owners.findById(99999)).willReturn(Optional.empty());
+		given(this.owners.findWithPetsAndVisitsById(99999)).willReturn(Optional.empty());
 		mockMvc.perform(get("/owners/99999")).andExpect(status().isNotFound());
 	}
 
+	private static OwnerCsvRow csvRow(Owner owner) {
+		return new OwnerCsvRow(owner.getId(), owner.getFirstName(), owner.getLastName(), owner.getAddress(),
+				owner.getCity(), owner.getTelephone());
+	}
+
+	private ResultActions performCsvExport(MockHttpServletRequestBuilder builder) throws Exception {
+		MvcResult started = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+		return mockMvc.perform(asyncDispatch(started));
+	}
+
 	@Test
 	void testExportOwnersCsvNoFilter() throws Exception {
 		// Arrange
-		when(this.owners.findByLastNameStartingWith(eq(""), any(Pageable.class)))
-			.thenReturn(new PageImpl<>(List.of(george())));
+		when(this.owners.streamCsvRowsByLastNameStartingWith("")).thenReturn(Stream.of(csvRow(george())));
 
 		// Act & Assert
-		mockMvc.perform(get("/owners.csv"))
-			.andExpect(status().isOk())
+		performCsvExport(get("/owners.csv")).andExpect(status().isOk())
 			.andExpect(content().contentTypeCompatibleWith("text/csv"))
 			.andExpect(content()
 				.string(org.hamcrest.Matchers.containsString("id,firstName,lastName,address,city,telephone")));
@@ -529,12 +648,10 @@ class OwnerControllerTests {
 	@Test
 	void testExportOwnersCsvWithLastNameFilter() throws Exception {
 		// Arrange
-		when(this.owners.findByLastNameStartingWith(eq("Franklin"), any(Pageable.class)))
-			.thenReturn(new PageImpl<>(List.of(george())));
+		when(this.owners.streamCsvRowsByLastNameStartingWith("Franklin")).thenReturn(Stream.of(csvRow(george())));
 
 		// Act & Assert
-		mockMvc.perform(get("/owners.csv").param("lastName", "Franklin"))
-			.andExpect(status().isOk())
+		performCsvExport(get("/owners.csv").param("lastName", "Franklin")).andExpect(status().isOk())
 			.andExpect(content().contentTypeCompatibleWith("text/csv"))
 			.andExpect(content().string(org.hamcrest.Matchers
 				.containsString("\"1\",\"George\",\"Franklin\",\"110 W. Liberty St.\",\"Madison\",\"6085551023\"")));
@@ -543,16 +660,64 @@ class OwnerControllerTests {
 	@Test
 	void testExportOwnersCsvEmptyResults() throws Exception {
 		// Arrange
-		when(this.owners.findByLastNameStartingWith(eq("Unknown"), any(Pageable.class)))
-			.thenReturn(new PageImpl<>(List.of()));
+		when(this.owners.streamCsvRowsByLastNameStartingWith("Unknown")).thenReturn(Stream.empty());
 
 		// Act & Assert
-		mockMvc.perform(get("/owners.csv").param("lastName", "Unknown"))
-			.andExpect(status().isOk())
+		performCsvExport(get("/owners.csv").param("lastName", "Unknown")).andExpect(status().isOk())
 			.andExpect(content().contentTypeCompatibleWith("text/csv"))
 			.andExpect(content().string("id,firstName,lastName,address,city,telephone\n"));
 	}
 
+	@Test
+	void testExportOwnersCsvEscapesQuotesLineBreaksAndFormulas() throws Exception {
+		OwnerCsvRow row = new OwnerCsvRow(7, "=cmd()", "O\"Brien", "1 Main St.\r\nApt 2", "Madison", "6085551023");
+		when(this.owners.streamCsvRowsByLastNameStartingWith("")).thenReturn(Stream.of(row));
+
+		performCsvExport(get("/owners.csv")).andExpect(status().isOk())
+			.andExpect(content().string(org.hamcrest.Matchers
+				.containsString("\"7\",\"'=cmd()\",\"O\"\"Brien\",\"1 Main St. Apt 2\",\"Madison\",\"6085551023\"\n")));
+	}
+
+	@Test
+	void testExportOwnersCsvIsGzippedWhenAccepted() throws Exception {
+		when(this.owners.streamCsvRowsByLastNameStartingWith("")).thenReturn(Stream.of(csvRow(george())));
+
+		byte[] body = performCsvExport(get("/owners.csv").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+
+		try (GZIPInputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			String csv = new String(gunzip.readAllBytes(), StandardCharsets.UTF_8);
+			assertThat(csv).startsWith("id,firstName,lastName,address,city,telephone\n").contains("\"George\"");
+		}
+	}
+
+	@Test
+	void testExportOwnersCsvIsNotGzippedWhenRefused() throws Exception {
+		when(this.owners.streamCsvRowsByLastNameStartingWith("")).thenReturn(Stream.of(csvRow(george())));
+
+		performCsvExport(get("/owners.csv").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *"))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andExpect(content().string(org.hamcrest.Matchers.containsString("\"George\"")));
+	}
+
+	@Test
+	void testAcceptsGzipHonorsQualityValues() {
+		assertThat(OwnerController.acceptsGzip("gzip")).isTrue();
+		assertThat(OwnerController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+		assertThat(OwnerController.acceptsGzip("br, *;q=0.1")).isTrue();
+		assertThat(OwnerController.acceptsGzip(null)).isFalse();
+		assertThat(OwnerController.acceptsGzip("identity")).isFalse();
+		assertThat(OwnerController.acceptsGzip("gzip;q=0")).isFalse();
+		assertThat(OwnerController.acceptsGzip("gzip; q=0.000, *;q=1")).isFalse();
+		assertThat(OwnerController.acceptsGzip("*;q=0")).isFalse();
+		assertThat(OwnerController.acceptsGzip("gzip;q=high")).isFalse();
+	}
+
 	// ---------------------------------------------------------------------------
 	// Access control: OWNER role
 	// ---------------------------------------------------------------------------
@@ -580,11 +745,25 @@ class OwnerControllerTests {
 
 		Owner betty = new Owner();
 		betty.setId(2);
-		given(this.owners.findById(2)).willReturn(Optional.of(betty));
+		given(this.owners.findWithPetsAndVisitsById(2)).willReturn(Optional.of(betty));
 
 		mockMvc.perform(get("/owners/{ownerId}", 2)).andExpect(status().isForbidden());
 	}
 
+	@Test
+	void testShowOwner_ownerPrincipal_authorizesWithoutUserLookup() throws Exception {
+		PetClinicUser george = new PetClinicUser(new UserAccount(1, "george.franklin@petclinic.com", "secret",
+				Role.OWNER, TEST_OWNER_ID, "George", "Franklin"));
+		Owner betty = new Owner();
+		betty.setId(2);
+		given(this.owners.findWithPetsAndVisitsById(2)).willReturn(Optional.of(betty));
+
+		mockMvc.perform(get("/owners/{ownerId}", TEST_OWNER_ID).with(user(george))).andExpect(status().isOk());
+		mockMvc.perform(get("/owners/{ownerId}", 2).with(user(george))).andExpect(status().isForbidden());
+
+		verify(userRepository, never()).findByEmail(anyString());
+	}
+
 	@Test
 	@WithMockUser(username = "george.franklin@petclinic.com", roles = "OWNER")
 	void testInitUpdateOwnerForm_ownerAccessingOtherOwner_returns403() throws Exception {
@@ -610,16 +789,31 @@ class OwnerControllerTests {
 		georgeUser.setOwner(george());
 		given(userRepository.findByEmail("george.franklin@petclinic.com")).willReturn(Optional.of(georgeUser));
 
-		Owner betty = new Owner();
-		betty.setId(2);
-		betty.setFirstName("Betty");
-		betty.setLastName("Davis");
-		Page<Owner> allOwners = new PageImpl<>(List.of(george(), betty), PageRequest.of(0, 5), 2);
-		when(this.owners.findByFilters(any(), any(), any(), any(Pageable.class))).thenReturn(allOwners);
+		given(this.owners.matchesFilters(eq(TEST_OWNER_ID), any(), any(), any())).willReturn(true);
 
 		mockMvc.perform(get("/owners?page=1"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(redirectedUrl("/owners/" + TEST_OWNER_ID));
+
+		verify(this.owners, never()).findByFilters(any(), any(), any(), any(Pageable.class));
+	}
+
+	@Test
+	@WithMockUser(username = "george.franklin@petclinic.com", roles = "OWNER")
+	void testProcessFindForm_ownerRoleUser_searchingForOtherOwners_notFound() throws Exception {
+		User georgeUser = new User();
+		georgeUser.setEmail("george.franklin@petclinic.com");
+		georgeUser.setRole(Role.OWNER);
+		georgeUser.setOwner(george());
+		given(userRepository.findByEmail("george.franklin@petclinic.com")).willReturn(Optional.of(georgeUser));
+		given(this.owners.matchesFilters(TEST_OWNER_ID, "Davis", null, null)).willReturn(false);
+
+		mockMvc.perform(get("/owners?page=1").param("lastName", "Davis"))
+			.andExpect(status().isOk())
+			.andExpect(model().hasErrors())
+			.andExpect(view().name("owners/findOwners"));
+
+		verify(this.owners, never()).findByFilters(any(), any(), any(), any(Pageable.class));
 	}
 
 	// ---------------------------------------------------------------------------
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Locks in the number of SQL statements each owner, pet and visit page issues, so that an
+ * eager association or a lazy load from a template shows up as a test failure rather than
+ * as an N+1 query pattern in production.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DisabledInNativeImage
+@DisabledInAotMode
+class OwnerQueryCountIntegrationTests {
+
+	// Jean Coleman: two pets, each with visits
+	private static final int OWNER_ID = 6;
+
+	private static final int PET_ID = 7;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setup() {
+		this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void ownerSearchLoadsPetsForThePageInOneQuery() throws Exception {
+		// page query (no count: the page is not full) + pets of the owners on the page
+		assertStatementCount(2, "/owners?lastName=Davis");
+	}
+
+	@Test
+	void ownerDetailsLoadsPetsAndVisitsWithoutPerPetQueries() throws Exception {
+		// version probe + owner with pets + visits of all pets
+		assertStatementCount(3, "/owners/" + OWNER_ID);
+	}
+
+	@Test
+	void unchangedOwnerDetailsAreAnsweredWithTheVersionProbeOnly() throws Exception {
+		String url = "/owners/" + OWNER_ID;
+		MockHttpSession session = new MockHttpSession();
+		// the ETag is per session, so revalidate in the session of the first response
+		MockHttpServletResponse first = this.mockMvc.perform(get(url).with(admin()).session(session))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse();
+		this.statistics.clear();
+		this.mockMvc
+			.perform(get(url).with(admin())
+				.session(session)
+				.header(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG)))
+			.andExpect(status().isNotModified());
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("petclinic.http.conditional")
+			.tag("uri", "/owners/{ownerId}")
+			.tag("result", "not-modified")
+			.counter()
+			.count()).isPositive();
+	}
+
+	@Test
+	void unchangedOwnerApiResourcesAreAnsweredWithTheVersionProbeOnly() throws Exception {
+		for (String url : List.of("/api/v1/owners/" + OWNER_ID, "/api/v1/owners/" + OWNER_ID + "/pets",
+				"/api/v1/owners/" + OWNER_ID + "/pets/" + PET_ID + "/visits")) {
+			MockHttpSession session = new MockHttpSession();
+			String etag = this.mockMvc.perform(get(url).with(admin()).session(session))
+				.andExpect(status().isOk())
+				.andReturn()
+				.getResponse()
+				.getHeader(HttpHeaders.ETAG);
+			this.statistics.clear();
+			this.mockMvc.perform(get(url).with(admin()).session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+			assertThat(this.statistics.getPrepareStatementCount()).as("SQL statements for GET %s", url).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void unchangedOwnerApiListIsNotModified() throws Exception {
+		String url = "/api/v1/owners?lastName=Davis";
+		String etag = this.mockMvc.perform(get(url).with(admin()))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getHeader(HttpHeaders.ETAG);
+
+		this.mockMvc.perform(get(url).with(admin()).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(content().string(""));
+	}
+
+	@Test
+	void ownerEditFormLoadsOwnerOnly() throws Exception {
+		assertStatementCount(1, "/owners/" + OWNER_ID + "/edit");
+	}
+
+	@Test
+	void petEditFormLoadsOwnerOnly() throws Exception {
+		// owner with pets; the pet types come from PetTypeRegistry
+		assertStatementCount(1, "/owners/" + OWNER_ID + "/pets/" + PET_ID + "/edit");
+	}
+
+	@Test
+	void newVisitFormLoadsPetsAndVisits() throws Exception {
+		assertStatementCount(2, "/owners/" + OWNER_ID + "/pets/" + PET_ID + "/visits/new");
+	}
+
+	@Test
+	@Transactional
+	void bookingVisitInsertsTheVisitWithoutMergingTheOwner() throws Exception {
+		this.statistics.clear();
+		this.mockMvc
+			.perform(post("/owners/" + OWNER_ID + "/pets/" + PET_ID + "/visits/new").with(admin())
+				.with(csrf())
+				.param("date", LocalDate.now().plusDays(1).toString())
+				.param("description", "checkup"))
+			.andExpect(redirectedUrl("/owners/" + OWNER_ID));
+		// owner with pets + visit insert
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void repositoryCallsArePublishedPerRequest() throws Exception {
+		this.mockMvc.perform(get("/owners/" + OWNER_ID + "/edit").with(admin())).andExpect(status().isOk());
+
+		DistributionSummary calls = this.meterRegistry.get("petclinic.repository.calls")
+			.tag("uri", "/owners/{ownerId}/edit")
+			.summary();
+		assertThat(calls.count()).isPositive();
+		assertThat(calls.max()).isEqualTo(1);
+	}
+
+	private void assertStatementCount(long expected, String url) throws Exception {
+		// warm up first so that application-level caches do not make the count depend on
+		// test order
+		this.mockMvc.perform(get(url).with(admin())).andExpect(status().isOk());
+		this.statistics.clear();
+		this.mockMvc.perform(get(url).with(admin())).andExpect(status().isOk());
+		assertThat(this.statistics.getPrepareStatementCount()).as("SQL statements for GET %s", url).isEqualTo(expected);
+	}
+
+	private static RequestPostProcessor admin() {
+		return user("admin").roles("ADMIN");
+	}
+
+}
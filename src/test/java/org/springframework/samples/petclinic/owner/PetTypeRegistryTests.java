@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * Test class for {@link PetTypeRegistry}
+ */
+@ExtendWith(MockitoExtension.class)
+class PetTypeRegistryTests {
+
+	@Mock
+	private PetTypeRepository types;
+
+	private PetTypeRegistry registry;
+
+	@BeforeEach
+	void setup() {
+		this.registry = new PetTypeRegistry(this.types, new ConcurrentMapCache("petTypes"));
+		given(this.types.findPetTypes()).willReturn(List.of(petType(1, "bird"), petType(2, "dog")));
+	}
+
+	@Test
+	void shouldLookUpByNameAndIdFromOneQuery() {
+		assertThat(this.registry.findByName("dog")).map(PetType::getId).contains(2);
+		assertThat(this.registry.findById(1)).map(PetType::getName).contains("bird");
+		assertThat(this.registry.findByName("fish")).isEmpty();
+		assertThat(this.registry.findAll()).extracting(PetType::getName).containsExactly("bird", "dog");
+
+		verify(this.types, times(1)).findPetTypes();
+	}
+
+	@Test
+	void shouldReloadAfterInvalidate() {
+		this.registry.findAll();
+		given(this.types.findPetTypes()).willReturn(List.of(petType(1, "bird"), petType(2, "dog"), petType(3, "fish")));
+
+		this.registry.invalidate();
+
+		assertThat(this.registry.findByName("fish")).isPresent();
+		verify(this.types, times(2)).findPetTypes();
+	}
+
+	private static PetType petType(int id, String name) {
+		PetType type = new PetType();
+		type.setId(id);
+		type.setName(name);
+		return type;
+	}
+
+}
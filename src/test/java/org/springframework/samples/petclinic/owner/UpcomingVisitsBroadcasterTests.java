@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.samples.petclinic.owner.UpcomingVisitsBroadcaster.Update;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+/**
+ * Test class for {@link UpcomingVisitsBroadcaster}
+ */
+class UpcomingVisitsBroadcasterTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final UpcomingVisitsBroadcaster broadcaster = new UpcomingVisitsBroadcaster(this.meterRegistry);
+
+	@Test
+	void shouldFanBookingsOutToEverySubscriber() {
+		book(1, "Leo");
+		List<Update> admin = new CopyOnWriteArrayList<>();
+		List<Update> george = new CopyOnWriteArrayList<>();
+		Disposable first = this.broadcaster.updates(this.broadcaster.lastEventId(), null).subscribe(admin::add);
+		Disposable second = this.broadcaster.updates(this.broadcaster.lastEventId(), 1).subscribe(george::add);
+
+		book(1, "Basil");
+		book(6, "Samantha");
+
+		assertThat(admin).extracting(update -> update.visit().petName()).containsExactly("Basil", "Samantha");
+		assertThat(george).extracting(update -> update.visit().petName()).containsExactly("Basil");
+		assertThat(this.meterRegistry.get("petclinic.visits.live.subscribers").gauge().value()).isEqualTo(2);
+		first.dispose();
+		second.dispose();
+	}
+
+	@Test
+	void shouldReplayWhatAReconnectingClientMissed() {
+		book(1, "Leo");
+		long lastSeen = this.broadcaster.lastEventId();
+		book(1, "Basil");
+		book(6, "Samantha");
+
+		List<Update> missed = this.broadcaster.updates(lastSeen, null)
+			.take(2)
+			.collectList()
+			.block(Duration.ofSeconds(5));
+
+		assertThat(missed).extracting(update -> update.visit().petName()).containsExactly("Basil", "Samantha");
+		assertThat(missed).extracting(Update::id).containsExactly(lastSeen + 1, lastSeen + 2);
+	}
+
+	@Test
+	void shouldResetAClientThatFellTooFarBehind() {
+		for (int i = 0; i <= UpcomingVisitsBroadcaster.REPLAY; i++) {
+			book(1, "Pet " + i);
+		}
+
+		List<Update> updates = this.broadcaster.updates(0, null).collectList().block(Duration.ofSeconds(5));
+
+		assertThat(updates).singleElement().satisfies(update -> assertThat(update.reset()).isTrue());
+	}
+
+	@Test
+	void shouldResetAClientThatDoesNotKeepUpWithoutHoldingUpTheOthers() {
+		List<Update> keepingUp = new CopyOnWriteArrayList<>();
+		this.broadcaster.updates(this.broadcaster.lastEventId(), null).subscribe(keepingUp::add);
+		List<Update> stalled = new CopyOnWriteArrayList<>();
+		BaseSubscriber<Update> stalledSubscriber = new BaseSubscriber<>() {
+
+			@Override
+			protected void hookOnSubscribe(Subscription subscription) {
+				// requests nothing until the test does
+			}
+
+			@Override
+			protected void hookOnNext(Update update) {
+				stalled.add(update);
+			}
+
+		};
+		this.broadcaster.updates(this.broadcaster.lastEventId(), null).subscribe(stalledSubscriber);
+
+		for (int i = 0; i <= UpcomingVisitsBroadcaster.CLIENT_BUFFER; i++) {
+			book(1, "Pet " + i);
+		}
+		assertThat(keepingUp).hasSize(UpcomingVisitsBroadcaster.CLIENT_BUFFER + 1);
+		assertThat(stalled).isEmpty();
+
+		stalledSubscriber.request(Long.MAX_VALUE);
+		assertThat(stalled).hasSize(UpcomingVisitsBroadcaster.CLIENT_BUFFER + 1);
+		assertThat(stalled.get(stalled.size() - 1).reset()).isTrue();
+	}
+
+	private void book(int ownerId, String petName) {
+		this.broadcaster.onVisitBooked(new VisitBookedEvent(
+				new UpcomingVisit(null, ownerId, "Owner " + ownerId, petName, LocalDate.now().plusDays(1), "checkup")));
+	}
+
+}
@@ -16,13 +16,19 @@
 
 package org.springframework.samples.petclinic.owner;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 
 import java.time.LocalDate;
@@ -34,6 +40,9 @@ import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.security.OwnerAuthenticationSuccessHandler;
 import org.springframework.samples.petclinic.security.Role;
 import org.springframework.samples.petclinic.security.User;
@@ -43,6 +52,9 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import reactor.core.publisher.Flux;
 
 /**
  * Test class for {@link UpcomingVisitsController}
@@ -60,6 +72,12 @@ class UpcomingVisitsControllerTests {
 	@MockitoBean
 	private VisitRepository visitRepository;
 
+	@MockitoBean
+	private VisitCalendar visitCalendar;
+
+	@MockitoBean
+	private UpcomingVisitsBroadcaster broadcaster;
+
 	@MockitoBean
 	private UserRepository userRepository;
 
@@ -67,12 +85,13 @@ class UpcomingVisitsControllerTests {
 	private OwnerAuthenticationSuccessHandler ownerAuthenticationSuccessHandler;
 
 	private UpcomingVisit upcomingVisit() {
-		return new UpcomingVisit(1, "George Franklin", "Samantha", LocalDate.now().plusDays(1), "rabies shot");
+		return new UpcomingVisit(1, 1, "George Franklin", "Samantha", LocalDate.now().plusDays(1), "rabies shot");
 	}
 
 	@Test
 	void testShowUpcomingVisitsDefault() throws Exception {
-		given(this.visitRepository.findUpcomingVisits(any(), any())).willReturn(List.of(upcomingVisit()));
+		given(this.visitCalendar.findUpcomingVisits(any(), any(), any()))
+			.willReturn(new SliceImpl<>(List.of(upcomingVisit())));
 
 		mockMvc.perform(get("/visits/upcoming"))
 			.andExpect(status().isOk())
@@ -82,7 +101,8 @@ class UpcomingVisitsControllerTests {
 
 	@Test
 	void testShowUpcomingVisitsWithDaysParam() throws Exception {
-		given(this.visitRepository.findUpcomingVisits(any(), any())).willReturn(List.of(upcomingVisit()));
+		given(this.visitCalendar.findUpcomingVisits(any(), any(), any()))
+			.willReturn(new SliceImpl<>(List.of(upcomingVisit())));
 
 		mockMvc.perform(get("/visits/upcoming").param("days", "14"))
 			.andExpect(status().isOk())
@@ -110,7 +130,7 @@ class UpcomingVisitsControllerTests {
 
 	@Test
 	void testShowUpcomingVisitsEmptyState() throws Exception {
-		given(this.visitRepository.findUpcomingVisits(any(), any())).willReturn(List.of());
+		given(this.visitCalendar.findUpcomingVisits(any(), any(), any())).willReturn(new SliceImpl<>(List.of()));
 
 		mockMvc.perform(get("/visits/upcoming"))
 			.andExpect(status().isOk())
@@ -130,9 +150,10 @@ class UpcomingVisitsControllerTests {
 		georgeUser.setOwner(george);
 		given(userRepository.findByEmail("george.franklin@petclinic.com")).willReturn(Optional.of(georgeUser));
 
-		UpcomingVisit georgeVisit = new UpcomingVisit(1, "George Franklin", "Samantha", LocalDate.now().plusDays(1),
+		UpcomingVisit georgeVisit = new UpcomingVisit(2, 1, "George Franklin", "Samantha", LocalDate.now().plusDays(1),
 				"rabies shot");
-		given(visitRepository.findUpcomingVisitsByOwnerId(eq(1), any(), any())).willReturn(List.of(georgeVisit));
+		given(visitRepository.findUpcomingVisitSliceByOwnerId(eq(1), any(), any(), any()))
+			.willReturn(new SliceImpl<>(List.of(georgeVisit)));
 
 		mockMvc.perform(get("/visits/upcoming"))
 			.andExpect(status().isOk())
@@ -142,13 +163,89 @@ class UpcomingVisitsControllerTests {
 	@Test
 	@WithMockUser(username = "admin@petclinic.com", roles = "ADMIN")
 	void testShowUpcomingVisits_adminSeesAllVisits() throws Exception {
-		UpcomingVisit visit1 = new UpcomingVisit(1, "George Franklin", "Leo", LocalDate.now().plusDays(1), "checkup");
-		UpcomingVisit visit2 = new UpcomingVisit(6, "Jean Coleman", "Samantha", LocalDate.now().plusDays(2), "shots");
-		given(visitRepository.findUpcomingVisits(any(), any())).willReturn(List.of(visit1, visit2));
+		UpcomingVisit visit1 = new UpcomingVisit(3, 1, "George Franklin", "Leo", LocalDate.now().plusDays(1),
+				"checkup");
+		UpcomingVisit visit2 = new UpcomingVisit(4, 6, "Jean Coleman", "Samantha", LocalDate.now().plusDays(2),
+				"shots");
+		given(visitCalendar.findUpcomingVisits(any(), any(), any()))
+			.willReturn(new SliceImpl<>(List.of(visit1, visit2)));
 
 		mockMvc.perform(get("/visits/upcoming"))
 			.andExpect(status().isOk())
 			.andExpect(model().attribute("upcomingVisits", hasSize(2)));
 	}
 
+	@Test
+	void testShowUpcomingVisitsSecondPage() throws Exception {
+		given(this.visitCalendar.findUpcomingVisits(any(), any(), eq(PageRequest.of(1, 50))))
+			.willReturn(new SliceImpl<>(List.of(upcomingVisit()), PageRequest.of(1, 50), true));
+
+		mockMvc.perform(get("/visits/upcoming").param("days", "365").param("page", "2"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("upcomingVisits", hasSize(1)))
+			.andExpect(model().attribute("currentPage", 2))
+			.andExpect(model().attribute("hasNext", true));
+	}
+
+	@Test
+	void testStreamUpcomingVisitsSendsBookingsAfterTheGivenEvent() throws Exception {
+		given(this.broadcaster.updates(5, null)).willReturn(Flux
+			.just(new UpcomingVisitsBroadcaster.Update(6, upcomingVisit()), UpcomingVisitsBroadcaster.Update.RESET));
+
+		MvcResult started = mockMvc.perform(get("/visits/upcoming/live").param("after", "5"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+			.andExpect(content().string(containsString("id:6\n")))
+			.andExpect(content().string(containsString("event:visit\n")))
+			.andExpect(content().string(containsString("\"ownerName\":\"George Franklin\"")))
+			.andExpect(content().string(containsString("event:reset")));
+	}
+
+	@Test
+	void testStreamUpcomingVisitsIsNotCutByTheAsyncRequestTimeout() throws Exception {
+		given(this.broadcaster.updates(0, null)).willReturn(Flux.never());
+
+		MvcResult started = mockMvc.perform(get("/visits/upcoming/live"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		assertThat(started.getRequest().getAsyncContext().getTimeout()).isNotPositive();
+	}
+
+	@Test
+	void testStreamUpcomingVisitsResumesFromLastEventId() throws Exception {
+		given(this.broadcaster.updates(7, null)).willReturn(Flux.just(UpcomingVisitsBroadcaster.Update.RESET));
+
+		MvcResult started = mockMvc
+			.perform(get("/visits/upcoming/live").param("after", "5").header("Last-Event-ID", "7"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(started)).andExpect(content().string(containsString("event:reset")));
+	}
+
+	@Test
+	@WithMockUser(username = "george.franklin@petclinic.com", roles = "OWNER")
+	void testStreamUpcomingVisits_ownerRoleUser_receivesOnlyOwnVisits() throws Exception {
+		User georgeUser = new User();
+		georgeUser.setEmail("george.franklin@petclinic.com");
+		georgeUser.setRole(Role.OWNER);
+		Owner george = new Owner();
+		george.setId(1);
+		georgeUser.setOwner(george);
+		given(userRepository.findByEmail("george.franklin@petclinic.com")).willReturn(Optional.of(georgeUser));
+		given(this.broadcaster.updates(0, 1)).willReturn(Flux.just(UpcomingVisitsBroadcaster.Update.RESET));
+
+		MvcResult started = mockMvc.perform(get("/visits/upcoming/live"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+		verify(this.broadcaster).updates(0, 1);
+	}
+
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Integration tests for {@link VisitCalendarChangeListener}.
+ */
+@SpringBootTest
+@Transactional
+@DisabledInNativeImage
+@DisabledInAotMode
+class VisitCalendarChangeListenerTests {
+
+	// Jean Coleman: two pets, each with visits
+	private static final int OWNER_ID = 6;
+
+	private static final int PET_ID = 7;
+
+	@MockitoSpyBean
+	private VisitCalendar calendar;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void shouldKeepTheCalendarWhenUnlistedFieldsChange() {
+		Owner owner = this.entityManager.find(Owner.class, OWNER_ID);
+		owner.setTelephone("6085550000");
+		owner.setCity("Monona");
+		Pet pet = owner.getPet(PET_ID);
+		pet.setBirthDate(pet.getBirthDate().minusDays(1));
+		this.entityManager.flush();
+
+		verify(this.calendar, never()).invalidate();
+	}
+
+	@Test
+	void shouldInvalidateTheCalendarWhenAnOwnerIsRenamed() {
+		this.entityManager.find(Owner.class, OWNER_ID).setLastName("Coleman-Davis");
+		this.entityManager.flush();
+
+		verify(this.calendar).invalidate();
+	}
+
+	@Test
+	void shouldInvalidateTheCalendarWhenAPetIsRenamed() {
+		this.entityManager.find(Pet.class, PET_ID).setName("Sam");
+		this.entityManager.flush();
+
+		verify(this.calendar).invalidate();
+	}
+
+	@Test
+	void shouldInvalidateTheCalendarWhenAVisitIsRescheduled() {
+		Visit visit = this.entityManager.find(Pet.class, PET_ID).getVisits().iterator().next();
+		visit.setDate(visit.getDate().plusDays(1));
+		this.entityManager.flush();
+
+		verify(this.calendar).invalidate();
+	}
+
+	@Test
+	void shouldInvalidateTheCalendarWhenAVisitIsDeleted() {
+		Pet pet = this.entityManager.find(Pet.class, PET_ID);
+		Visit visit = pet.getVisits().iterator().next();
+		pet.getVisits().remove(visit);
+		this.entityManager.remove(visit);
+		this.entityManager.flush();
+
+		verify(this.calendar).invalidate();
+	}
+
+}
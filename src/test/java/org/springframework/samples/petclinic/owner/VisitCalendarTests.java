@@ -0,0 +1,192 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Test class for {@link VisitCalendar}
+ */
+@ExtendWith(MockitoExtension.class)
+class VisitCalendarTests {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	@Mock
+	private VisitRepository visits;
+
+	private VisitCalendar calendar;
+
+	@BeforeEach
+	void setup() {
+		this.calendar = new VisitCalendar(this.visits, new ConcurrentMapCache(VisitCalendar.CACHE_NAME));
+	}
+
+	@Test
+	void shouldPageThroughTheDaysFromOneQuery() {
+		given(this.visits.findUpcomingVisits(any(), any()))
+			.willReturn(List.of(visit(1, "Leo", 1), visit(2, "Max", 1), visit(3, "Basil", 2), visit(4, "Rosy", 5)));
+
+		Slice<UpcomingVisit> first = this.calendar.findUpcomingVisits(TODAY, TODAY.plusDays(6), PageRequest.of(0, 3));
+		Slice<UpcomingVisit> second = this.calendar.findUpcomingVisits(TODAY, TODAY.plusDays(6), PageRequest.of(1, 3));
+		Slice<UpcomingVisit> tomorrow = this.calendar.findUpcomingVisits(TODAY.plusDays(1), TODAY.plusDays(1),
+				PageRequest.of(0, 3));
+
+		assertThat(first.getContent()).extracting(UpcomingVisit::petName).containsExactly("Leo", "Max", "Basil");
+		assertThat(first.hasNext()).isTrue();
+		assertThat(second.getContent()).extracting(UpcomingVisit::petName).containsExactly("Rosy");
+		assertThat(second.hasNext()).isFalse();
+		assertThat(tomorrow.getContent()).extracting(UpcomingVisit::petName).containsExactly("Leo", "Max");
+		verify(this.visits, times(1)).findUpcomingVisits(any(), any());
+	}
+
+	@Test
+	void shouldAddBookedVisitsAfterTheOnesOfTheSameDay() {
+		given(this.visits.findUpcomingVisits(any(), any()))
+			.willReturn(List.of(visit(1, "Leo", 1), visit(3, "Basil", 2)));
+		this.calendar.findUpcomingVisits(TODAY, TODAY.plusDays(6), PageRequest.of(0, 10));
+
+		Owner owner = new Owner();
+		owner.setId(6);
+		owner.setFirstName("Jean");
+		owner.setLastName("Coleman");
+		Pet pet = new Pet();
+		pet.setName("Samantha");
+		Visit visit = new Visit();
+		visit.setId(5);
+		visit.setDate(TODAY.plusDays(1));
+		visit.setDescription("shots");
+		this.calendar.onVisitBooked(VisitBookedEvent.of(owner, pet, visit));
+
+		assertThat(this.calendar.findUpcomingVisits(TODAY, TODAY.plusDays(6), PageRequest.of(0, 10)).getContent())
+			.extracting(UpcomingVisit::petName)
+			.containsExactly("Leo", "Samantha", "Basil");
+		verify(this.visits, times(1)).findUpcomingVisits(any(), any());
+	}
+
+	@Test
+	void shouldNotAddBookedVisitsTheCalendarWasLoadedWith() {
+		given(this.visits.findUpcomingVisits(any(), any())).willReturn(List.of(visit(1, "Leo", 1)));
+		long loaded = this.calendar.version();
+
+		this.calendar.onVisitBooked(booking(1, "Leo", 1));
+
+		assertThat(this.calendar.findUpcomingVisits(TODAY, TODAY.plusDays(6), PageRequest.of(0, 10)).getContent())
+			.extracting(UpcomingVisit::petName)
+			.containsExactly("Leo");
+		assertThat(this.calendar.version()).isEqualTo(loaded);
+	}
+
+	@Test
+	void shouldDiscardALoadInFlightWhenAVisitIsBooked() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch evicting = new CountDownLatch(1);
+		// the booking's eviction lets the load finish, so the load ran before the commit
+		VisitCalendar calendar = new VisitCalendar(this.visits, new ConcurrentMapCache(VisitCalendar.CACHE_NAME) {
+
+			@Override
+			public void evict(Object key) {
+				evicting.countDown();
+				super.evict(key);
+			}
+
+		});
+		given(this.visits.findUpcomingVisits(any(), any())).willAnswer(invocation -> {
+			loading.countDown();
+			evicting.await(5, TimeUnit.SECONDS);
+			return List.of(visit(1, "Leo", 1));
+		}).willReturn(List.of(visit(1, "Leo", 1), visit(2, "Max", 1)));
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Long> read = executor.submit(calendar::version);
+			assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+			calendar.onVisitBooked(booking(2, "Max", 1));
+			read.get(5, TimeUnit.SECONDS);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(calendar.findUpcomingVisits(TODAY, TODAY.plusDays(6), PageRequest.of(0, 10)).getContent())
+			.extracting(UpcomingVisit::petName)
+			.containsExactly("Leo", "Max");
+		verify(this.visits, times(2)).findUpcomingVisits(any(), any());
+	}
+
+	@Test
+	void shouldReloadAfterInvalidate() {
+		given(this.visits.findUpcomingVisits(any(), any())).willReturn(List.of(visit(1, "Leo", 1)));
+		this.calendar.findUpcomingVisits(TODAY, TODAY.plusDays(6), PageRequest.of(0, 10));
+
+		this.calendar.invalidate();
+		this.calendar.findUpcomingVisits(TODAY, TODAY.plusDays(6), PageRequest.of(0, 10));
+
+		verify(this.visits, times(2)).findUpcomingVisits(any(), any());
+	}
+
+	@Test
+	void shouldReadRangesBeyondTheCalendarFromTheDatabase() {
+		LocalDate end = TODAY.plusDays(VisitCalendar.HORIZON_DAYS);
+		given(this.visits.findUpcomingVisitSlice(TODAY, end, PageRequest.of(0, 10)))
+			.willReturn(new SliceImpl<>(List.of(visit(5, "Leo", 400))));
+
+		assertThat(this.calendar.findUpcomingVisits(TODAY, end, PageRequest.of(0, 10)).getContent()).hasSize(1);
+		verify(this.visits, never()).findUpcomingVisits(any(), any());
+	}
+
+	private static UpcomingVisit visit(int id, String petName, int inDays) {
+		return new UpcomingVisit(id, 1, "George Franklin", petName, TODAY.plusDays(inDays), "checkup");
+	}
+
+	private static VisitBookedEvent booking(int id, String petName, int inDays) {
+		Owner owner = new Owner();
+		owner.setId(1);
+		owner.setFirstName("George");
+		owner.setLastName("Franklin");
+		Pet pet = new Pet();
+		pet.setName(petName);
+		Visit visit = new Visit();
+		visit.setId(id);
+		visit.setDate(TODAY.plusDays(inDays));
+		visit.setDescription("checkup");
+		return VisitBookedEvent.of(owner, pet, visit);
+	}
+
+}
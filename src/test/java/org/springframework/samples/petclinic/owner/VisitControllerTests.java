@@ -16,7 +16,12 @@
 
 package org.springframework.samples.petclinic.owner;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -35,6 +40,8 @@ import org.springframework.samples.petclinic.security.UserRepository;
 import org.springframework.samples.petclinic.security.WebMvcTestSecurityConfig;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -53,7 +60,8 @@ import org.junit.jupiter.api.Nested;
 @DisabledInNativeImage
 @DisabledInAotMode
 @WithMockUser
-@Import(WebMvcTestSecurityConfig.class)
+@RecordApplicationEvents
+@Import({ WebMvcTestSecurityConfig.class, OwnerResolver.class })
 class VisitControllerTests {
 
 	private static final int TEST_OWNER_ID = 1;
@@ -66,6 +74,12 @@ class VisitControllerTests {
 	@MockitoBean
 	private OwnerRepository owners;
 
+	@MockitoBean
+	private VisitBookingService visitBookings;
+
+	@Autowired
+	private ApplicationEvents events;
+
 	@MockitoBean
 	private UserRepository userRepository;
 
@@ -78,7 +92,8 @@ class VisitControllerTests {
 		Pet pet = new Pet();
 		owner.addPet(pet);
 		pet.setId(TEST_PET_ID);
-		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.owners.findWithPetsById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.owners.findWithPetsAndVisitsById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
 	}
 
 	@Test
@@ -96,6 +111,12 @@ class VisitControllerTests {
 				.param("description", "Visit Description"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/{ownerId}"));
+
+		verify(this.visitBookings).book(eq(TEST_PET_ID), any(Visit.class));
+		assertThat(this.events.stream(VisitBookedEvent.class)).singleElement()
+			.satisfies(event -> assertThat(event.visit().description()).isEqualTo("Visit Description"));
+		verify(this.owners, never()).findWithPetsAndVisitsById(TEST_OWNER_ID);
+		verify(this.owners, never()).save(any(Owner.class));
 	}
 
 	@Test
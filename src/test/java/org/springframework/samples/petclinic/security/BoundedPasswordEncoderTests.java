@@ -0,0 +1,116 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Test class for {@link BoundedPasswordEncoder}
+ */
+class BoundedPasswordEncoderTests {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final CountDownLatch started = new CountDownLatch(1);
+
+	private BoundedPasswordEncoder encoder;
+
+	@AfterEach
+	void release() {
+		this.release.countDown();
+	}
+
+	@Test
+	void shouldDelegateVerification() {
+		this.encoder = new BoundedPasswordEncoder(new PlainEncoder(), 1, Duration.ofSeconds(5));
+
+		assertThat(this.encoder.matches("secret", "secret")).isTrue();
+		assertThat(this.encoder.matches("secret", "other")).isFalse();
+		assertThat(this.encoder.encode("secret")).isEqualTo("secret");
+	}
+
+	@Test
+	void shouldRejectVerificationWithoutWaitingForTheRunningOne() throws Exception {
+		this.encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, Duration.ofMillis(50));
+		CompletableFuture.runAsync(() -> this.encoder.matches("running", "x"));
+		assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		long start = System.nanoTime();
+		assertThatExceptionOfType(AuthenticationServiceException.class)
+			.isThrownBy(() -> this.encoder.matches("rejected", "x"))
+			.withMessageContaining("Too many concurrent logins");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+	}
+
+	@Test
+	void shouldReleaseThePermitWhenVerificationFails() {
+		this.encoder = new BoundedPasswordEncoder(new FailingEncoder(), 1, Duration.ofMillis(50));
+
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> this.encoder.matches("first", "x"));
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> this.encoder.matches("second", "x"));
+	}
+
+	private static class PlainEncoder implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return rawPassword.toString();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return rawPassword.toString().equals(encodedPassword);
+		}
+
+	}
+
+	private static class FailingEncoder extends PlainEncoder {
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			throw new IllegalStateException("Malformed hash");
+		}
+
+	}
+
+	private class BlockingEncoder extends PlainEncoder {
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			BoundedPasswordEncoderTests.this.started.countDown();
+			try {
+				BoundedPasswordEncoderTests.this.release.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for re-hashing outdated password hashes on login.
+ */
+@SpringBootTest(properties = "petclinic.security.password.bcrypt-strength=5")
+@AutoConfigureMockMvc
+@DisabledInNativeImage
+@DisabledInAotMode
+class PasswordUpgradeIntegrationTests {
+
+	private static final String EMAIL = "legacy.hash@petclinic.com";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@AfterEach
+	void deleteUser() {
+		this.userRepository.findByEmail(EMAIL).ifPresent(this.userRepository::delete);
+	}
+
+	@Test
+	void loginRehashesUntaggedHashWithTheConfiguredStrength() throws Exception {
+		User user = new User();
+		user.setEmail(EMAIL);
+		user.setPasswordHash(new BCryptPasswordEncoder(4).encode("s3cret-pass"));
+		user.setRole(Role.ADMIN);
+		this.userRepository.save(user);
+
+		this.mockMvc.perform(formLogin("/login").user(EMAIL).password("s3cret-pass")).andExpect(authenticated());
+
+		String upgraded = this.userRepository.findByEmail(EMAIL).orElseThrow().getPasswordHash();
+		assertThat(upgraded).startsWith("{bcrypt}$2a$05$");
+
+		this.mockMvc.perform(formLogin("/login").user(EMAIL).password("s3cret-pass")).andExpect(authenticated());
+		assertThat(this.userRepository.findByEmail(EMAIL).orElseThrow().getPasswordHash()).isEqualTo(upgraded);
+	}
+
+}
@@ -29,6 +29,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.util.SerializationUtils;
 
 @ExtendWith(MockitoExtension.class)
 class UserDetailsServiceImplTests {
@@ -39,24 +40,66 @@ class UserDetailsServiceImplTests {
 	@InjectMocks
 	private UserDetailsServiceImpl userDetailsService;
 
+	private final UserAccount george = new UserAccount(1, "george.franklin@petclinic.com", "$2a$10$hashed", Role.OWNER,
+			1, "George", "Franklin");
+
 	@Test
 	void loadUserByUsername_returnsUserDetailsForValidEmail() {
+		when(userRepository.findAccountByEmail("george.franklin@petclinic.com")).thenReturn(Optional.of(george));
+
+		UserDetails details = userDetailsService.loadUserByUsername("george.franklin@petclinic.com");
+
+		assertThat(details.getUsername()).isEqualTo("george.franklin@petclinic.com");
+		assertThat(details.getAuthorities()).anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"));
+		assertThat(details).isInstanceOfSatisfying(PetClinicUser.class, user -> {
+			assertThat(user.getId()).isEqualTo(1);
+			assertThat(user.getOwnerId()).isEqualTo(1);
+			assertThat(user.getDisplayName()).isEqualTo("George Franklin");
+		});
+	}
+
+	@Test
+	void loadUserByUsername_erasingCredentialsKeepsTheAccountIntact() {
+		when(userRepository.findAccountByEmail("george.franklin@petclinic.com")).thenReturn(Optional.of(george));
+
+		PetClinicUser first = (PetClinicUser) userDetailsService.loadUserByUsername("george.franklin@petclinic.com");
+		first.eraseCredentials();
+		UserDetails second = userDetailsService.loadUserByUsername("george.franklin@petclinic.com");
+
+		assertThat(first.getPassword()).isNull();
+		assertThat(second.getPassword()).isEqualTo("$2a$10$hashed");
+	}
+
+	@Test
+	void loadUserByUsername_returnsAPrincipalThatSurvivesSessionSerialization() {
+		when(userRepository.findAccountByEmail("george.franklin@petclinic.com")).thenReturn(Optional.of(george));
+
+		UserDetails details = userDetailsService.loadUserByUsername("george.franklin@petclinic.com");
+		PetClinicUser restored = (PetClinicUser) SerializationUtils.clone(details);
+
+		assertThat(restored.getOwnerId()).isEqualTo(1);
+		assertThat(restored.getDisplayName()).isEqualTo("George Franklin");
+	}
+
+	@Test
+	void updatePassword_storesTheNewHash() {
 		User user = new User();
+		user.setId(1);
 		user.setEmail("george.franklin@petclinic.com");
-		user.setPasswordHash("$2a$10$hashed");
+		user.setPasswordHash("$2a$04$old");
 		user.setRole(Role.OWNER);
-
 		when(userRepository.findByEmail("george.franklin@petclinic.com")).thenReturn(Optional.of(user));
+		when(userRepository.save(user)).thenReturn(user);
 
-		UserDetails details = userDetailsService.loadUserByUsername("george.franklin@petclinic.com");
+		UserDetails updated = userDetailsService.updatePassword(new PetClinicUser(george), "{bcrypt}$2a$10$new");
 
-		assertThat(details.getUsername()).isEqualTo("george.franklin@petclinic.com");
-		assertThat(details.getAuthorities()).anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"));
+		assertThat(user.getPasswordHash()).isEqualTo("{bcrypt}$2a$10$new");
+		assertThat(updated.getPassword()).isEqualTo("{bcrypt}$2a$10$new");
 	}
 
 	@Test
 	void loadUserByUsername_throwsUsernameNotFoundForUnknownEmail() {
-		when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+		when(userRepository.findAccountByEmail("nobody@example.com")).thenReturn(Optional.empty());
 
 		assertThatThrownBy(() -> userDetailsService.loadUserByUsername("nobody@example.com"))
 			.isInstanceOf(UsernameNotFoundException.class);
@@ -56,6 +56,18 @@ class UserRepositoryTests {
 		assertThat(found.get().getOwner()).isNull();
 	}
 
+	@Test
+	void shouldFindAccountWithLinkedOwnerByEmail() {
+		Optional<UserAccount> found = userRepository.findAccountByEmail("jean.coleman@petclinic.com");
+
+		assertThat(found).hasValueSatisfying(account -> {
+			assertThat(account.role()).isEqualTo(Role.OWNER);
+			assertThat(account.ownerId()).isEqualTo(6);
+			assertThat(account.ownerFirstName()).isEqualTo("Jean");
+			assertThat(account.ownerLastName()).isEqualTo("Coleman");
+		});
+	}
+
 	@Test
 	void shouldReturnEmptyForUnknownEmail() {
 		Optional<User> found = userRepository.findByEmail("nobody@example.com");
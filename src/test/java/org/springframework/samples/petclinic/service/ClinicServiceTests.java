@@ -19,7 +19,9 @@ package org.springframework.samples.petclinic.service;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -27,18 +29,31 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerCursor;
 import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
 import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.samples.petclinic.owner.PetSummary;
 import org.springframework.samples.petclinic.owner.PetType;
 import org.springframework.samples.petclinic.owner.PetTypeRepository;
+import org.springframework.samples.petclinic.owner.UpcomingVisit;
 import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.owner.VisitBookingService;
+import org.springframework.samples.petclinic.owner.VisitRepository;
+import org.springframework.samples.petclinic.owner.VisitSummary;
 import org.springframework.samples.petclinic.vet.Vet;
 import org.springframework.samples.petclinic.vet.VetRepository;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 /**
  * Integration test of the Service and the Repository layer.
  * <p>
@@ -71,6 +86,7 @@ import org.springframework.transaction.annotation.Transactional;
 // Ensure that if the mysql profile is active we connect to the real database:
 @AutoConfigureTestDatabase(replace = Replace.NONE)
 // @TestPropertySource("/application-postgres.properties")
+@Import(VisitBookingService.class)
 class ClinicServiceTests {
 
 	@Autowired
@@ -82,6 +98,15 @@ class ClinicServiceTests {
 	@Autowired
 	protected VetRepository vets;
 
+	@Autowired
+	protected VisitBookingService visitBookings;
+
+	@Autowired
+	protected VisitRepository visits;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
 	private final Pageable pageable = Pageable.unpaged();
 
 	@Test
@@ -232,6 +257,92 @@ class ClinicServiceTests {
 			.allMatch(value -> value.getId() != null);
 	}
 
+	@Test
+	@Transactional
+	void shouldBookVisitForPetWithoutSavingOwner() {
+		Visit visit = new Visit();
+		visit.setDescription("booked directly");
+
+		Visit booked = this.visitBookings.book(7, visit);
+		assertThat(booked.getId()).isNotNull();
+
+		this.entityManager.flush();
+		this.entityManager.clear();
+		Pet pet7 = this.owners.findWithPetsAndVisitsById(6).orElseThrow().getPet(7);
+		assertThat(pet7.getVisits()).extracting(Visit::getDescription).contains("booked directly");
+	}
+
+	@Test
+	void shouldFindUpcomingVisitsOfOwnersByAnyPartOfTheirName() {
+		LocalDate today = LocalDate.now();
+		List<UpcomingVisit> coleman = this.visits.findUpcomingVisitsByOwnerName("LEMA", today, today.plusYears(1),
+				PageRequest.of(0, 10));
+		List<UpcomingVisit> jean = this.visits.findUpcomingVisitsByOwnerName("jean c", today, today.plusYears(1),
+				PageRequest.of(0, 10));
+
+		assertThat(coleman).isNotEmpty().extracting(UpcomingVisit::ownerName).containsOnly("Jean Coleman");
+		assertThat(jean).isEqualTo(coleman);
+		assertThat(
+				this.visits.findUpcomingVisitsByOwnerName("nobody", today, today.plusYears(1), PageRequest.of(0, 10)))
+			.isEmpty();
+		assertThat(this.visits.findUpcomingVisitsByOwnerName("%", today, today.plusYears(1), PageRequest.of(0, 10)))
+			.isEmpty();
+	}
+
+	@Test
+	void shouldLimitUpcomingVisitsToThePage() {
+		LocalDate today = LocalDate.now();
+		List<UpcomingVisit> all = this.visits.findUpcomingVisits(today, today.plusYears(1));
+
+		List<UpcomingVisit> first = this.visits.findUpcomingVisitSlice(today, today.plusYears(1), PageRequest.of(0, 1))
+			.getContent();
+
+		assertThat(all).hasSizeGreaterThan(1);
+		assertThat(first).containsExactly(all.get(0));
+	}
+
+	@Test
+	void shouldPageThroughUpcomingVisitsInDateOrder() {
+		LocalDate today = LocalDate.now();
+		List<UpcomingVisit> all = this.visits.findUpcomingVisits(today, today.plusYears(1));
+
+		Slice<UpcomingVisit> first = this.visits.findUpcomingVisitSlice(today, today.plusYears(1),
+				PageRequest.of(0, 1));
+		Slice<UpcomingVisit> last = this.visits.findUpcomingVisitSlice(today, today.plusYears(1),
+				PageRequest.of(all.size() - 1, 1));
+
+		assertThat(first.getContent()).containsExactly(all.get(0));
+		assertThat(first.hasNext()).isTrue();
+		assertThat(last.getContent()).containsExactly(all.get(all.size() - 1));
+		assertThat(last.hasNext()).isFalse();
+		assertThat(all).extracting(UpcomingVisit::date).isSorted();
+	}
+
+	@Test
+	void shouldPageThroughOwnerSummariesByLastNamePrefix() {
+		Slice<OwnerSummary> first = this.owners.findSummariesByLastNameStartingWith("davis", PageRequest.of(0, 1));
+		Slice<OwnerSummary> second = this.owners.findSummariesByLastNameStartingWith("davis", PageRequest.of(1, 1));
+
+		assertThat(first.getContent()).extracting(OwnerSummary::firstName).containsExactly("Betty");
+		assertThat(first.hasNext()).isTrue();
+		assertThat(second.getContent()).extracting(OwnerSummary::firstName).containsExactly("Harold");
+		assertThat(second.hasNext()).isFalse();
+		assertThat(this.owners.findSummariesByLastNameStartingWith("", PageRequest.of(0, 20))).hasSize(10);
+	}
+
+	@Test
+	void shouldProjectPetsAndVisitsOfAnOwner() {
+		List<PetSummary> pets = this.owners.findPetSummariesByOwnerId(6);
+		List<VisitSummary> samanthasVisits = this.visits.findSummariesByOwnerIdAndPetId(6, 7);
+
+		assertThat(pets).extracting(PetSummary::name).containsExactly("Max", "Samantha");
+		assertThat(pets).extracting(PetSummary::type).containsOnly("cat");
+		assertThat(samanthasVisits).extracting(VisitSummary::description).containsExactly("spayed", "rabies shot");
+		assertThat(this.owners.existsPet(6, 7)).isTrue();
+		assertThat(this.owners.existsPet(1, 7)).isFalse();
+		assertThat(this.visits.findSummariesByOwnerIdAndPetId(1, 7)).isEmpty();
+	}
+
 	@Test
 	void shouldFindOwnersByTelephone() {
 		// Franklin's telephone from sample data
@@ -272,6 +383,64 @@ class ClinicServiceTests {
 		assertThat(results.getContent().get(0).getLastName()).isEqualTo("Franklin");
 	}
 
+	@Test
+	void shouldMatchLastNameAndCityPrefixesIgnoringCase() {
+		Page<Owner> results = this.owners.findByFilters("dAVI", null, "wINDSOR", pageable);
+		assertThat(results).hasSize(1);
+		assertThat(results.getContent().get(0).getFirstName()).isEqualTo("Harold");
+	}
+
+	@Test
+	@Transactional
+	void shouldFindNewlyInsertedOwnerByFilters() {
+		Owner owner = new Owner();
+		owner.setFirstName("Sam");
+		owner.setLastName("Zimmerman");
+		owner.setAddress("4, Evans Street");
+		owner.setCity("Wollongong");
+		owner.setTelephone("4444444444");
+		this.owners.saveAndFlush(owner);
+
+		Page<Owner> results = this.owners.findByFilters("zimm", null, "WOLL", pageable);
+		assertThat(results).hasSize(1);
+		assertThat(results.getContent().get(0).getId()).isEqualTo(owner.getId());
+	}
+
+	@Test
+	void shouldPageOwnersWithKeysetCursorsInBothDirections() {
+		List<Integer> forward = new ArrayList<>();
+		List<Slice<Owner>> pages = new ArrayList<>();
+		OwnerCursor cursor = null;
+		Slice<Owner> slice;
+		do {
+			slice = this.owners.findByFilters(null, null, "Ma", cursor, 3);
+			pages.add(slice);
+			slice.forEach(owner -> forward.add(owner.getId()));
+			Owner last = slice.getContent().get(slice.getNumberOfElements() - 1);
+			cursor = new OwnerCursor(last.getLastName().toLowerCase(), last.getId(), false);
+		}
+		while (slice.hasNext());
+
+		// Four owners in "Madison" ordered by last name: Escobito, Franklin, McTavish,
+		// Schroeder
+		assertThat(forward).containsExactly(8, 1, 5, 9);
+		assertThat(pages).hasSize(2);
+
+		Owner first = pages.get(1).getContent().get(0);
+		Slice<Owner> previous = this.owners.findByFilters(null, null, "Ma",
+				new OwnerCursor(first.getLastName().toLowerCase(), first.getId(), true), 3);
+		assertThat(previous.getContent()).extracting(Owner::getId).containsExactly(8, 1, 5);
+		assertThat(previous.hasNext()).isFalse();
+	}
+
+	@Test
+	void shouldMatchFiltersForASingleOwner() {
+		assertThat(this.owners.matchesFilters(1, "fRANK", null, "Mad")).isTrue();
+		assertThat(this.owners.matchesFilters(1, null, null, null)).isTrue();
+		assertThat(this.owners.matchesFilters(1, "Davis", null, null)).isFalse();
+		assertThat(this.owners.matchesFilters(1, null, "0000000000", null)).isFalse();
+	}
+
 	@Test
 	void shouldReturnAllOwnersWhenNoFiltersProvided() {
 		Page<Owner> results = this.owners.findByFilters(null, null, null, pageable);
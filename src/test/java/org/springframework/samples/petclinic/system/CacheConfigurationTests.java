@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+/**
+ * Test class for {@link CacheConfiguration}
+ */
+class CacheConfigurationTests {
+
+	private final StaticListableBeanFactory beans = new StaticListableBeanFactory();
+
+	@Test
+	void shouldOnlyCreateDeclaredCachesWithStatistics() {
+		CaffeineCacheManager cacheManager = cacheManager(Map.of("vets", "maximumSize=10"));
+
+		assertThat(cacheManager.getCacheNames()).containsExactly("vets");
+		assertThat(cacheManager.getCache("owners")).isNull();
+
+		CaffeineCache vets = (CaffeineCache) cacheManager.getCache("vets");
+		vets.get("all", () -> "loaded");
+		vets.get("all", () -> "loaded");
+		assertThat(vets.getNativeCache().stats().hitCount()).isEqualTo(1);
+		assertThat(vets.getNativeCache().policy().eviction())
+			.hasValueSatisfying(eviction -> assertThat(eviction.getMaximum()).isEqualTo(10));
+	}
+
+	@Test
+	void shouldOnlyExpireWithoutLoader() {
+		CaffeineCacheManager cacheManager = cacheManager(
+				Map.of("vets", "maximumSize=10,refreshAfterWrite=1m,expireAfterWrite=1h"));
+
+		CaffeineCache vets = (CaffeineCache) cacheManager.getCache("vets");
+		assertThat(vets.getNativeCache().policy().refreshAfterWrite()).isEmpty();
+		assertThat(vets.getNativeCache().policy().expireAfterWrite()).isPresent();
+	}
+
+	@Test
+	void shouldRejectLoaderWithoutSpec() {
+		this.beans.addBean("loader", loader("vets"));
+
+		assertThatIllegalStateException().isThrownBy(() -> cacheManager(Map.of())).withMessageContaining("vets");
+	}
+
+	@Test
+	void shouldRefreshThroughLoader() {
+		this.beans.addBean("loader", loader("vets"));
+
+		CaffeineCacheManager cacheManager = cacheManager(Map.of("vets", "maximumSize=10,refreshAfterWrite=1m"));
+
+		CaffeineCache vets = (CaffeineCache) cacheManager.getCache("vets");
+		assertThat(vets.getNativeCache().policy().refreshAfterWrite()).isPresent();
+	}
+
+	private CaffeineCacheManager cacheManager(Map<String, String> specs) {
+		return new CacheConfiguration().cacheManager(new CacheSpecProperties(specs),
+				this.beans.getBeanProvider(CacheValueLoader.class));
+	}
+
+	private static CacheValueLoader loader(String cacheName) {
+		return new CacheValueLoader() {
+
+			@Override
+			public String cacheName() {
+				return cacheName;
+			}
+
+			@Override
+			public Object load(Object key) {
+				return "reloaded";
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for {@link ConditionalGetInterceptor}.
+ */
+class ConditionalGetInterceptorTests {
+
+	private final AtomicLong version = new AtomicLong();
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final ConditionalGetInterceptor interceptor = new ConditionalGetInterceptor(
+			request -> (this.version.get() < 0) ? null : this.version.get(), this.registry);
+
+	private MockHttpServletResponse response;
+
+	@BeforeEach
+	void setup() {
+		this.response = new MockHttpServletResponse();
+	}
+
+	@Test
+	void unconditionalRequestGetsAnEtagAndMustRevalidate() {
+		assertThat(this.interceptor.preHandle(request("GET"), this.response, new Object())).isTrue();
+		assertThat(this.response.getHeader(HttpHeaders.ETAG)).startsWith("W/\"");
+		assertThat(this.response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache, private");
+		assertThat(count("unconditional")).isEqualTo(1);
+	}
+
+	@Test
+	void currentEtagIsAnsweredWithNotModified() {
+		String etag = currentEtag();
+		MockHttpServletRequest request = request("GET");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		assertThat(this.interceptor.preHandle(request, this.response, new Object())).isFalse();
+		assertThat(this.response.getStatus()).isEqualTo(304);
+		assertThat(count("not-modified")).isEqualTo(1);
+	}
+
+	@Test
+	void changedVersionRendersThePage() {
+		String etag = currentEtag();
+		this.version.incrementAndGet();
+		MockHttpServletRequest request = request("GET");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		assertThat(this.interceptor.preHandle(request, this.response, new Object())).isTrue();
+		assertThat(this.response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+		assertThat(count("modified")).isEqualTo(1);
+	}
+
+	@Test
+	void etagDependsOnTheUser() {
+		String etag = currentEtag();
+		MockHttpServletRequest request = request("GET");
+		request.setUserPrincipal(() -> "george");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		assertThat(this.interceptor.preHandle(request, this.response, new Object())).isTrue();
+	}
+
+	@Test
+	void onlyVersionsCountedByThisProcessDependOnItsStart() {
+		String etag = currentEtag();
+		MockHttpServletResponse perProcess = new MockHttpServletResponse();
+		new ConditionalGetInterceptor(request -> this.version.get(), this.registry, true).preHandle(request("GET"),
+				perProcess, new Object());
+		MockHttpServletResponse otherNode = new MockHttpServletResponse();
+		new ConditionalGetInterceptor(request -> this.version.get(), this.registry).preHandle(request("GET"), otherNode,
+				new Object());
+
+		assertThat(perProcess.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+		assertThat(otherNode.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+	}
+
+	@Test
+	void missingVersionIsNotRevalidated() {
+		this.version.set(-1);
+		assertThat(this.interceptor.preHandle(request("GET"), this.response, new Object())).isTrue();
+		assertThat(this.response.getHeader(HttpHeaders.ETAG)).isNull();
+		assertThat(this.registry.find(ConditionalGetInterceptor.METRIC_NAME).counters()).isEmpty();
+	}
+
+	@Test
+	void pageWithFlashMessageIsNotRevalidated() {
+		String etag = currentEtag();
+		MockHttpServletRequest request = request("GET");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		FlashMap flash = new FlashMap();
+		flash.put("message", "Owner Values Updated");
+		request.setAttribute(DispatcherServlet.INPUT_FLASH_MAP_ATTRIBUTE, flash);
+		assertThat(this.interceptor.preHandle(request, this.response, new Object())).isTrue();
+		assertThat(this.response.getHeader(HttpHeaders.ETAG)).isNull();
+	}
+
+	@Test
+	void postIsNotRevalidated() {
+		assertThat(this.interceptor.preHandle(request("POST"), this.response, new Object())).isTrue();
+		assertThat(this.response.getHeader(HttpHeaders.ETAG)).isNull();
+	}
+
+	private String currentEtag() {
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		this.interceptor.preHandle(request("GET"), first, new Object());
+		return first.getHeader(HttpHeaders.ETAG);
+	}
+
+	private double count(String result) {
+		return this.registry.get(ConditionalGetInterceptor.METRIC_NAME)
+			.tag("uri", "/vets")
+			.tag("result", result)
+			.counter()
+			.count();
+	}
+
+	private static MockHttpServletRequest request(String method) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, "/vets");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/vets");
+		return request;
+	}
+
+}
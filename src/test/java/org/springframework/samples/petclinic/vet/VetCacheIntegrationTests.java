@@ -0,0 +1,151 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Integration tests for the invalidation of the vet caches.
+ */
+@SpringBootTest(properties = "petclinic.cache.cluster.enabled=true")
+@DisabledInNativeImage
+@DisabledInAotMode
+class VetCacheIntegrationTests {
+
+	@Autowired
+	private VetRepository vets;
+
+	@Autowired
+	private SpecialtyRepository specialties;
+
+	@Autowired
+	private VetCacheVersionPoller poller;
+
+	@Autowired
+	private VetDataVersion dataVersion;
+
+	@Autowired
+	private TransactionTemplate transactions;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	void shouldEvictVetCachesWhenAVetIsAdded() {
+		int vetCount = this.vets.findAll().size();
+		long pagedVetCount = this.vets.findAll(PageRequest.of(0, 5)).getTotalElements();
+		assertThat(this.specialties.findSpecialtyNamesInUse()).doesNotContain("acupuncture");
+		long version = currentVersion();
+
+		Vet vet = this.transactions.execute(status -> {
+			Specialty acupuncture = new Specialty();
+			acupuncture.setName("acupuncture");
+			this.entityManager.persist(acupuncture);
+			Vet herriot = new Vet();
+			herriot.setFirstName("James");
+			herriot.setLastName("Herriot");
+			herriot.addSpecialty(acupuncture);
+			this.entityManager.persist(herriot);
+			return herriot;
+		});
+		try {
+			assertThat(this.vets.findAll()).hasSize(vetCount + 1);
+			assertThat(this.vets.findAll(PageRequest.of(0, 5)).getTotalElements()).isEqualTo(pagedVetCount + 1);
+			assertThat(this.specialties.findSpecialtyNamesInUse()).contains("acupuncture");
+			assertThat(currentVersion()).isGreaterThan(version);
+			assertThat(this.dataVersion.current()).isEqualTo(currentVersion());
+		}
+		finally {
+			this.transactions.executeWithoutResult(status -> {
+				Vet herriot = this.entityManager.find(Vet.class, vet.getId());
+				this.entityManager.remove(herriot);
+				herriot.getSpecialties().forEach(this.entityManager::remove);
+			});
+		}
+		assertThat(this.vets.findAll()).hasSize(vetCount);
+		assertThat(this.specialties.findSpecialtyNamesInUse()).doesNotContain("acupuncture");
+	}
+
+	@Test
+	void shouldEvictVetCachesWhenOnlyTheSpecialtiesOfAVetChange() {
+		// James Carter has no specialties
+		assertThat(specialtiesOfCarter()).isEmpty();
+		long version = currentVersion();
+
+		this.transactions.executeWithoutResult(status -> {
+			Vet carter = this.entityManager.find(Vet.class, 1);
+			carter.addSpecialty(this.entityManager.find(Specialty.class, 1));
+			this.vets.save(carter);
+		});
+		try {
+			assertThat(specialtiesOfCarter()).containsExactly("radiology");
+			assertThat(currentVersion()).isGreaterThan(version);
+		}
+		finally {
+			this.transactions.executeWithoutResult(status -> {
+				Vet carter = this.entityManager.find(Vet.class, 1);
+				carter.getSpecialtiesInternal().clear();
+				this.vets.save(carter);
+			});
+		}
+		assertThat(specialtiesOfCarter()).isEmpty();
+	}
+
+	@Test
+	void shouldEvictVetCachesWhenAnotherNodeChangesTheVetData() {
+		this.poller.poll();
+		Collection<Vet> cached = this.vets.findAll();
+		assertThat(this.vets.findAll()).isSameAs(cached);
+
+		this.jdbcTemplate.update("UPDATE cache_versions SET version = version + 1 WHERE name = 'vets'");
+		this.poller.poll();
+
+		assertThat(this.vets.findAll()).isNotSameAs(cached);
+		assertThat(this.dataVersion.current()).isEqualTo(currentVersion());
+	}
+
+	private List<String> specialtiesOfCarter() {
+		return this.vets.findAll()
+			.stream()
+			.filter(vet -> vet.getId() == 1)
+			.flatMap(vet -> vet.getSpecialties().stream())
+			.map(Specialty::getName)
+			.toList();
+	}
+
+	private long currentVersion() {
+		return this.jdbcTemplate.queryForObject("SELECT version FROM cache_versions WHERE name = 'vets'", Long.class);
+	}
+
+}
@@ -34,6 +34,8 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -60,6 +62,9 @@ class VetControllerTests {
 	@MockitoBean
 	private VetRepository vets;
 
+	@MockitoBean
+	private SpecialtyRepository specialties;
+
 	@MockitoBean
 	private UserRepository userRepository;
 
@@ -91,7 +96,7 @@ class VetControllerTests {
 		given(this.vets.findAll()).willReturn(Lists.newArrayList(james(), helen()));
 		given(this.vets.findAll(any(Pageable.class)))
 			.willReturn(new PageImpl<Vet>(Lists.newArrayList(james(), helen())));
-
+		given(this.specialties.findSpecialtyNamesInUse()).willReturn(Lists.newArrayList("radiology"));
 	}
 
 	@Test
@@ -108,9 +113,11 @@ class VetControllerTests {
 	void testShowVetListHtmlNoFilter() throws Exception {
 		mockMvc.perform(get("/vets.html?page=1"))
 			.andExpect(status().isOk())
-			.andExpect(model().attributeExists("listSpecialties"))
+			.andExpect(model().attribute("listSpecialties", Lists.newArrayList("radiology")))
 			.andExpect(model().attribute("specialty", ""))
 			.andExpect(view().name("vets/vetList"));
+
+		verify(this.vets, never()).findAll();
 	}
 
 	@Test